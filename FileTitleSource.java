@@ -0,0 +1,91 @@
+import java.io.*;
+import java.util.HashMap;
+
+/**
+ * Looks titles up in a file of "id<TAB>title" lines, the same format
+ * TitleCache stores titles in, so a leaderboard can be made without going
+ * to the network. Titles are unescaped the way TitleCache writes them:
+ * \t, \n, \r and \\ stand for a tab, newline, carriage return and
+ * backslash. A delay can be added to every lookup to stand in for
+ * the time a real request takes.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class FileTitleSource implements TitleSource
+{
+    private HashMap<String, String> titles;
+    private long delayMillis;
+
+    /**
+     * Constructor
+     * Reads every title in a file.
+     *
+     * @param fileName - file of "id<TAB>title" lines
+     */
+    public FileTitleSource(String fileName) throws IOException {
+        this(fileName, 0);
+    }
+
+    /**
+     * Constructor
+     * Reads every title in a file, and waits before answering each lookup.
+     *
+     * @param fileName - file of "id<TAB>title" lines
+     * @param delayMillis - how long each lookup takes
+     */
+    public FileTitleSource(String fileName, long delayMillis) throws IOException {
+        this(new HashMap<String, String>(), delayMillis);
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(fileName), "UTF-8"));
+        try{
+            String line;
+            while((line = reader.readLine()) != null){
+                int tab = line.indexOf('\t');
+                if(tab != -1){
+                    titles.put(line.substring(0, tab), 
+                               TitleCache.unescape(line.substring(tab + 1)));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Constructor
+     * Answers lookups from a map of titles.
+     *
+     * @param titles - title of every story by id, kept rather than copied
+     * @param delayMillis - how long each lookup takes
+     */
+    public FileTitleSource(HashMap<String, String> titles, long delayMillis){
+        this.titles = titles;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Looks up the title of a story, after the delay
+     *
+     * @param storyCode - id of the story
+     * @return the title, or null if the file has no line for the story
+     */
+    public String fetchTitle(String storyCode) throws IOException {
+        if(delayMillis > 0){
+            try{
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("lookup of " + storyCode + " interrupted");
+            }
+        }
+        return titles.get(storyCode);
+    }
+
+    /**
+     * Getter for the number of titles
+     */
+    public int size(){
+        return titles.size();
+    }
+}
@@ -0,0 +1,77 @@
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+
+/**
+ * Looks titles up over HTTP, by asking a page like TwitterTrails'
+ * title.php for the id. The page answers with the title on its second
+ * line, between lines of html, so every second line is kept. Each request
+ * gives up after a timeout instead of waiting on a slow server forever.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class HttpTitleSource implements TitleSource
+{
+    public static final String TWITTER_TRAILS = 
+        "http://twittertrails.wellesley.edu/~trails/stories/title.php?id=";
+    private final int DEFAULT_TIMEOUT = 5000; // milliseconds
+    private String baseUrl;
+    private int timeoutMillis;
+
+    /**
+     * Constructor
+     * Asks TwitterTrails for titles, using the default timeout.
+     */
+    public HttpTitleSource(){
+        this(TWITTER_TRAILS, 0);
+    }
+
+    /**
+     * Constructor
+     * Asks the given page for titles.
+     *
+     * @param baseUrl - address the story id is added to the end of
+     * @param timeoutMillis - how long to wait to connect and for each
+     *                        read, the default if 0
+     */
+    public HttpTitleSource(String baseUrl, int timeoutMillis){
+        this.baseUrl = baseUrl;
+        this.timeoutMillis = (timeoutMillis > 0) ? timeoutMillis : DEFAULT_TIMEOUT;
+    }
+
+    /**
+     * Requests the title of a story
+     *
+     * @param storyCode - id of the story
+     * @return the title, or null if the server has no page for the story
+     * @throws IOException if the request fails or times out
+     */
+    public String fetchTitle(String storyCode) throws IOException {
+        URL u = new URL(baseUrl + URLEncoder.encode(storyCode, "UTF-8"));
+        HttpURLConnection connection = (HttpURLConnection) u.openConnection();
+        connection.setConnectTimeout(timeoutMillis);
+        connection.setReadTimeout(timeoutMillis);
+        if(connection.getResponseCode() == HttpURLConnection.HTTP_NOT_FOUND){
+            connection.disconnect();
+            return null;
+        }
+        BufferedReader reader = new BufferedReader(
+            new InputStreamReader(connection.getInputStream(), "UTF-8"));
+        try{
+            StringBuilder title = new StringBuilder();
+            // skip a line of html, then keep the line after it
+            while(reader.readLine() != null){
+                String line = reader.readLine();
+                if(line != null){
+                    title.append(line);
+                }
+            }
+            return title.toString();
+        } finally {
+            reader.close();
+            connection.disconnect();
+        }
+    }
+}
@@ -1,9 +1,7 @@
 
 import java.util.*;
-import java.io.IOException;
-import java.util.Hashtable;
+import java.io.*;
 import javafoundations.*;
-import java.net.*;
 /**
  * Reads "RATgraph.tgf" and runs a few methods to investigate 
  * the graph. 
@@ -13,36 +11,108 @@ import java.net.*;
  */
 public class Investigate
 {
+    // most title lookups sent at once, and how long to wait for a batch
+    private static final int MAX_TITLE_REQUESTS = 16;
+    private static final long TITLE_TIMEOUT = 10000; // milliseconds
+    private static TitleSource titleSource = new HttpTitleSource();
+    private static TitleCache titles; // made the first time a title is needed
+    private static TitleResolver resolver; // shared by every batch of titles,
+    // so a story being fetched for one batch is not fetched again for another
+
     /**
-     * Retrieves data (html code) from a web server using the Scanner class
+     * Returns the title of a story, fetching it only if it is not already
+     * in the title cache
      * 
-     * @param storyCode - storyID of story whose title we w
-     * @returns title - title of the story
+     * @param storyCode - storyID of story whose title we want
+     * @returns title - title of the story, "" if it cannot be found
      */
     public static String getStoryTitle(String storyCode) {
-        String title = "";
-        try {
-            String TTrails = "http://twittertrails.wellesley.edu" + 
-                "/~trails/stories/title.php?id=";
-            URL u = new URL(TTrails + storyCode); 
+        return getTitleCache().get(storyCode);
+    }
 
-            Scanner urlScan = new Scanner(u.openStream()).useDelimiter("<");
-            // delimiter helps avoid unwanted html code
+    /**
+     * Returns the titles of several stories. The ones that are not in the 
+     * title cache are fetched at the same time and added to it.
+     * 
+     * @param storyCodes - storyIDs of the stories whose titles we want
+     * @returns titles - title of each story, "" for any that cannot be found
+     */
+    public static Map<String, String> getStoryTitles(List<String> storyCodes) {
+        return getTitleCache().getAll(storyCodes, getTitleResolver());
+    }
 
-            while(urlScan.hasNext()) {
-                urlScan.nextLine();
-                title += urlScan.nextLine();
-            }
+    /**
+     * Getter for the title cache, which is kept in "titles.tsv" unless 
+     * another one has been set
+     */
+    public static synchronized TitleCache getTitleCache() {
+        if (titles == null) {
+            titles = new TitleCache("titles.tsv", Investigate::fetchStoryTitle);
+        }
+        return titles;
+    }
 
+    /**
+     * Setter for the title cache, e.g. to use one made from a seeded file
+     */
+    public static synchronized void setTitleCache(TitleCache cache) {
+        titles = cache;
+    }
+
+    /**
+     * Getter for where titles that are not cached are fetched from, 
+     * TwitterTrails unless another source has been set
+     */
+    public static synchronized TitleSource getTitleSource() {
+        return titleSource;
+    }
+
+    /**
+     * Setter for where titles are fetched from, e.g. a FileTitleSource or 
+     * a LocalTitleServer to work offline. Lookups already started by the 
+     * old source are left to finish.
+     */
+    public static synchronized void setTitleSource(TitleSource source) {
+        titleSource = source;
+        if (resolver != null) {
+            resolver.shutdown();
+            resolver = null;
+        }
+    }
+
+    /**
+     * Getter for the resolver that fetches batches of titles from the 
+     * title source, made the first time it is needed. Its threads do not 
+     * keep the program running.
+     */
+    public static synchronized TitleResolver getTitleResolver() {
+        if (resolver == null) {
+            resolver = new TitleResolver(titleSource, MAX_TITLE_REQUESTS, 
+                                         TITLE_TIMEOUT);
+        }
+        return resolver;
+    }
+
+    /**
+     * Fetches the title of a story from the title source, skipping the 
+     * cache
+     * 
+     * @param storyCode - storyID of story whose title we want
+     * @returns title - title of the story, null if it cannot be retrieved
+     */
+    public static String fetchStoryTitle(String storyCode) {
+        try {
+            return getTitleSource().fetchTitle(storyCode);
         } catch (IOException ex) {
             System.out.println(ex);
+            return null;
         }
-        return title;
     }
 
     /**
-     * Compare the length of the iterator created by a DFS from each user
-     * to determine which user is in the largest connected component
+     * Compare the size of the connected component of each user to 
+     * determine which user is in the largest connected component. The 
+     * components are labeled once, so each comparison is a lookup.
      * 
      * @param ratty - RATGraph object that contains bipartite graph variable
      * @returns mostConnected - user and size of largest connected component
@@ -53,11 +123,13 @@ public class Investigate
         int currentDFS = 0;
         String currentUser = "";
 
-        Vector<String> users = getUsers(ratty);
+        List<String> users = getUsers(ratty);
+        ConnectedComponents<Object> components = ratty.getSnapshot().getComponents();
         for (int i = 0; i < users.size(); i++ ) {
             currentUser = users.get(i);
-            currentDFS = ratty.getGraph().DFS(currentUser).size(); // 
-            // if iterator returned by DFS size is larger than longestDFS so far
+            // same as the size of the iterator returned by a DFS from the user
+            currentDFS = components.getComponentSizeOf(currentUser);
+            // if component size is larger than longestDFS so far
             if(currentDFS >= longestDFS){ 
                 longestDFS = currentDFS;
                 mostConnected += currentUser + "," + longestDFS + "\n";
@@ -68,8 +140,9 @@ public class Investigate
     }
 
     /**
-     * Compare the length of the iterator created by a DFS from each story
-     * to determine which story is in the largest connected component
+     * Compare the size of the connected component of each story to 
+     * determine which story is in the largest connected component. The 
+     * components are labeled once, so each comparison is a lookup.
      * 
      * @param ratty - RATGraph object that contains bipartite graph variable
      * @returns mostConnected - story and size of DFS
@@ -80,11 +153,12 @@ public class Investigate
         int currentDFS = 0;
         String currentStory = "";
 
-        Vector<String> stories = getStories(ratty);
+        List<String> stories = getStories(ratty);
+        ConnectedComponents<Object> components = ratty.getSnapshot().getComponents();
         for (int i = 0; i < stories.size(); i++ ) {
             currentStory = stories.get(i);
-            currentDFS = ratty.getGraph().DFS(currentStory).size(); // length of iterator
-            // returned by DFS from currentStory
+            // same as the length of iterator returned by DFS from currentStory
+            currentDFS = components.getComponentSizeOf(currentStory);
             if(currentDFS >= longestDFS){
                 longestDFS = currentDFS;
                 mostConnected += currentStory +": " + getStoryTitle(currentStory) + 
@@ -96,266 +170,310 @@ public class Investigate
     }
 
     /**
-     * Determine the most central user in the largest connected component. 
+     * Rank the users in the largest connected component by closeness. 
      * A central user is one that has the total smallest sum of distances 
-     * from itself to every other node
+     * from itself to every other node of the component
      * 
      * @param ratty - RATGraph object that contains bipartite graph variable
-     * @returns mostCentral - user and size of BFS
+     * @returns ranked users, most central first, with their sums of distances
      */
-    public static String findMostCentralUser(RATgraph ratty){
-        String mostCentral = " "; 
-        int shortestSumSoFar = 1000000000; 
-        String currentUser = "";
-        String otherNode = "";
-
-        Vector<String> users = getUsers(ratty);
-        for(int i = 0; i< users.size(); i++) {
-            currentUser = users.get(i);
-
-            Vector<String> vertices = ratty.getGraph().getVertices();
-            int sumSoFar = 0;
-            for (int j = 0; j < vertices.size(); j++) {
-                otherNode = vertices.get(j);
-                // calculate the sum of distance from node i to node j
-                int currentBFS = ratty.getGraph().BFSFind(currentUser, otherNode).size();
-                sumSoFar += currentBFS; 
+    public static CentralityResult<Object> findMostCentralUser(RATgraph ratty){
+        return findMostCentralUser(ratty, 1);
+    }
 
-            }
-            // if the sum of the distances from itself to every other node is smaller
-            // than the smallestSumSoFar, replace it 
-            if (sumSoFar <= shortestSumSoFar) {
-                shortestSumSoFar = sumSoFar;
-                mostCentral += currentUser + "," + shortestSumSoFar + "\n";
-            }
-        }
-        return mostCentral;
+    /**
+     * Rank the users in the largest connected component by closeness, 
+     * sharing the searches across several threads. The ranking is the 
+     * same as the serial one.
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable
+     * @param parallelism - number of threads to use
+     * @returns ranked users, most central first, with their sums of distances
+     */
+    public static CentralityResult<Object> findMostCentralUser(RATgraph ratty, 
+                                                               int parallelism){
+        CsrGraph<Object> snapshot = ratty.getSnapshot();
+        ClosenessCentrality<Object> closeness = 
+            new ClosenessCentrality<Object>(snapshot, snapshot.getComponents());
+        // one BFS per user gives its distance to every other node
+        return closeness.rank(getUsers(ratty), parallelism);
     }
 
     /**
-     * Determine the most central story in the largets connected component. 
+     * Rank the stories in the largest connected component by closeness. 
      * A central story is one that has the total smallest sum of distances 
-     * from itself to every other vertex
+     * from itself to every other vertex of the component
      * 
      * @param ratty - RATGraph object that contains bipartite graph variable
-     * @returns mostConnected - story and size of DFS
+     * @returns ranked stories, most central first, with their sums of distances
      */
-    public static String findMostCentralStory(RATgraph ratty){
-        String mostCentral = " "; 
-        int shortestSumSoFar = 1000000000; 
-        String currentStory = "";
-        String otherNode = "";
+    public static CentralityResult<Object> findMostCentralStory(RATgraph ratty){
+        return findMostCentralStory(ratty, 1);
+    }
 
-        Vector<String> stories = getStories(ratty);
-        for(int i = 0; i < stories.size(); i++) {
-            currentStory = stories.get(i);
-            int sumSoFar = 0; // total sum of distances from node i 
-            //to every other node
-            Vector<String> vertices = ratty.getGraph().getVertices();
-            for (int j = 0; j < vertices.size(); j++) {
-                otherNode = vertices.get(j);
-                // calculate the sum of distance from node i to node j
-                int currentBFS = ratty.getGraph().BFSFind(currentStory, otherNode).size();
-                sumSoFar += currentBFS; 
-            }
-            // if the sum of the distances from itself to every other node is smaller
-            // than the smallestSumSoFar, replace it 
-            if (sumSoFar <= shortestSumSoFar) {
-                shortestSumSoFar = sumSoFar;
-                mostCentral += currentStory + "," + shortestSumSoFar + ",";
-            }
+    /**
+     * Rank the stories in the largest connected component by closeness, 
+     * sharing the searches across several threads. The ranking is the 
+     * same as the serial one.
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable
+     * @param parallelism - number of threads to use
+     * @returns ranked stories, most central first, with their sums of distances
+     */
+    public static CentralityResult<Object> findMostCentralStory(RATgraph ratty, 
+                                                                int parallelism){
+        CsrGraph<Object> snapshot = ratty.getSnapshot();
+        ClosenessCentrality<Object> closeness = 
+            new ClosenessCentrality<Object>(snapshot, snapshot.getComponents());
+        // one BFS per story gives its distance to every other node
+        return closeness.rank(getStories(ratty), parallelism);
+    }
+
+    /**
+     * Ranks the users by activity, the number of stories they appear in. 
+     * Each user's degree is read from the bipartite graph, so stories are 
+     * never looked at. Users with the same score share a rank and are 
+     * listed in the order they were read.
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable, 
+     *        topNum - number of most active users to be displayed
+     * @returns rows of "rank,user,score" for the most active users
+     */
+    public static Leaderboard userLeaderboard(RATgraph ratty, int topNum){
+        return leaderboard(ratty, rankUsersByActivity(ratty, topNum), false);
+    }
+
+    /**
+     * Ranks the stories by popularity, the number of users that appear in 
+     * them, the same way as the user leaderboard. No titles are looked up 
+     * until the rows are shown.
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable, 
+     *        topNum - number of most popular stories to be displayed
+     * @returns rows of "rank,story:title,score" for the most popular stories
+     */
+    public static Leaderboard storyLeaderboard(RATgraph ratty, int topNum){
+        return leaderboard(ratty, rankStoriesByPopularity(ratty, topNum), true);
+    }
+
+    /**
+     * Labels ranked users or stories with their vertices in the graph
+     */
+    private static Leaderboard leaderboard(RATgraph ratty, TopK.Entry[] top, 
+                                           boolean stories){
+        String[] labels = new String[top.length];
+        for(int i = 0; i < top.length; i++){
+            labels[i] = stories ? ratty.getStoryVertex(top[i].getId()) : 
+                ratty.getUserVertex(top[i].getId());
         }
-        return mostCentral;
+        if (!stories) {
+            return new Leaderboard(top, labels, null, null);
+        }
+        return new Leaderboard(top, labels, getTitleCache(), getTitleResolver());
     }
 
-    /** Compare the length of the iterator created by a DFS from each story
-     * to determine which story is in the largest connected component
+    /**
+     * Ranks the users by activity, as userLeaderboard does
+     * 
      * @param ratty - RATGraph object that contains bipartite graph variable, 
-     *        topNum - number ofmost active users to be displayed
-     * @returns result - array of most active users
+     *        topNum - number of most active users to be displayed
+     * @returns result - Strings of "rank,user,score" for the most active users
      */
     public static Vector<String> getUserLeaderboard(RATgraph ratty, int topNum){
-        //create a collection to hold all the activity scores
-        Vector<Integer> activityScores = new Vector<Integer>();
-        //create hashtable to hold the users with their respective scores
-        Hashtable<Integer, LinkedList<String>> activityWithUser = new Hashtable<Integer, LinkedList<String>>();
-        //create Linkedlist to hold the returned LinkedList from later 
-        //getSuccessors() calls
-        LinkedList<String> currentSuccessors = new LinkedList<String>();
-        //loop through all of the user accounts in RATgraph object ratty
-        for (int i = 0; i < getUsers(ratty).size(); i++){
-            //get the current user's successors and hold its size
-            String currentUser = getUsers(ratty).get(i);
-            currentSuccessors = ratty.getGraph().getSuccessors(currentUser);
-            int currentScore = currentSuccessors.size();
-            activityScores.add(currentScore);
-            //if the hashtable already contains the activity score, the user with the same score is added to the linkedlist value 
-            if(activityWithUser.contains(currentScore)){
-                activityWithUser.get(currentScore).add(currentUser);
-            }
-            //if the hashtable does not yet contain any users with the activity 
-            //score,create a new LinkedList and its score as the key
-            else{
-                LinkedList<String> temp = new LinkedList<String>();
-                temp.add(currentUser);
-                activityWithUser.put(currentScore, temp);
-            }
-        }
-        //instantiate a HeapSort object so that non-static sortInDescending order
-        //method can be called
-        HeapSort<Integer> sorter = new HeapSort<Integer>();
-        //sort the Vector of activity scores
-        Vector<Integer> sortedScores = sorter.sortInDescending(activityScores);
-        Vector<String> result = new Vector<String>();
-        //loop through the top scores wanted by driver and retrieve users in
-        //LinkedList using the scores in sortedScores as keys
-        for(int i = 0; i < topNum; i++){
-            int score = sortedScores.get(i);
-            String intoResult = Integer.toString(i+1);
-            LinkedList<String> users = activityWithUser.get(score); 
-            for (int j = 0; j <users.size(); j++) {
-                intoResult+= "," + users.get(j);
-            }
-            intoResult += "," + Integer.toString(score) + "\n";
-            //populate the Vector with Strings of "Rank, Screen name, Score"
-            result.add(intoResult);
+        return toVector(userLeaderboard(ratty, topNum));
+    }
+
+    /**
+     * Ranks the stories by popularity, as storyLeaderboard does, looking 
+     * up the title of every story listed
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable, 
+     *        topNum - number of most popular stories to be displayed
+     * @returns result - Strings of "rank,story:title,score" for the most 
+     *          popular stories
+     */
+    public static Vector<String> getStoryLeaderboard(RATgraph ratty, int topNum){
+        return toVector(storyLeaderboard(ratty, topNum));
+    }
+
+    /**
+     * Renders every row of a leaderboard as its own String
+     */
+    private static Vector<String> toVector(Leaderboard leaderboard){
+        leaderboard.resolveTitles(leaderboard.size());
+        Vector<String> result = new Vector<String>(leaderboard.size());
+        for(int i = 0; i < leaderboard.size(); i++){
+            result.add(leaderboard.getRow(i) + "\n");
         }
         return result;
     }
 
-    /**Compare the length of the iterator created by a DFS from each story
-     * to determine which story is in the largest connected component
+    /**
+     * Joins every two users who appear in at least minWeight of the same 
+     * stories, weighting the edge by how many stories they share. These 
+     * are the accounts that amplify the same stories.
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable
+     * @param minWeight - fewest shared stories for two users to be joined
+     * @param parallelism - number of threads to use
+     * @returns weighted graph whose vertex i is user i of ratty.getBipartite()
+     */
+    public static CsrGraph<String> getUserProjection(RATgraph ratty, int minWeight, 
+                                                     int parallelism){
+        return Projection.projectUsers(ratty.getBipartite(), minWeight, parallelism);
+    }
+
+    /**
+     * Joins every story to the topN stories it shares the most users 
+     * with, weighting the edge by how many users they share. These are 
+     * the stories pushed by the same accounts. The stories are labeled 
+     * as in ratty.getGraph(), so getStories(ratty) can be ranked on it.
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable
+     * @param topN - strongest neighbours kept for each story
+     * @param parallelism - number of threads to use
+     * @returns weighted graph whose vertex i is story i of ratty.getBipartite()
+     */
+    public static CsrGraph<String> getStoryProjection(RATgraph ratty, int topN, 
+                                                      int parallelism){
+        return Projection.projectStories(ratty.getBipartite(), topN, parallelism);
+    }
+
+    /**
+     * Finds the topNum users in the most stories
+     * 
      * @param ratty - RATGraph object that contains bipartite graph variable, 
-     *        topNum - number of most story users to be displayed
-     * @returns result - array of most active stories 
+     *        topNum - number of users to keep
+     * @returns ranked entries whose ids are user ids in ratty.getBipartite()
      */
-    public static Vector<String> getStoryLeaderboard(RATgraph ratty, int topNum){
-        //create a collection to hold all the popularity scores
-        Vector<Integer> popularityScores = new Vector<Integer>();
-        //create hashtable to hold the stories with their respective scores
-        Hashtable<Integer, LinkedList<String>> popularityWithStory = new Hashtable<Integer, LinkedList<String>>();
-        //create Linkedlist to hold the returned LinkedList from later 
-        //getSuccessors() calls
-        LinkedList<String> currentSuccessors = new LinkedList<String>();
-        //loop through all of the stories in RATgraph object ratty
-        for (int i = 0; i < getStories(ratty).size(); i++){
-            String currentStory = getStories(ratty).get(i);
-            //get the current story's successors and hold its size
-            currentSuccessors = ratty.getGraph().getSuccessors(currentStory);
-            int currentScore = currentSuccessors.size();
-            //check if this size has been seen before, if not add to the Vector
-            //of scores 
-            if(!popularityScores.contains(currentScore)){
-                popularityScores.add(currentScore);
-            }
-            //if the hashtable already contains a popularity score, the story 
-            // with the same score is added to the linkedlist value associated
-            //with the popularity score key
-            if(popularityWithStory.contains(currentScore)){
-                if (!popularityWithStory.get(currentScore).contains(currentStory)){
-                    popularityWithStory.get(currentScore).add(currentStory);
-                }
-            }
-            //if the hashtable does not yet contain any stories with the popularity score,
-            //meaning its a new score, create a new LinkedList with the 
-            //current story as the elemnet and its score as the key
+    public static TopK.Entry[] rankUsersByActivity(RATgraph ratty, int topNum){
+        return rankByDegree(ratty, topNum, true);
+    }
 
-            else{
-                LinkedList<String> temp = new LinkedList<String>();
-                temp.add(currentStory);
+    /**
+     * Finds the topNum stories with the most users
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable, 
+     *        topNum - number of stories to keep
+     * @returns ranked entries whose ids are story ids in ratty.getBipartite()
+     */
+    public static TopK.Entry[] rankStoriesByPopularity(RATgraph ratty, int topNum){
+        return rankByDegree(ratty, topNum, false);
+    }
 
-                popularityWithStory.put(currentScore, temp);
+    /**
+     * Offers every user (or every story) of the bipartite graph to a TopK, 
+     * scored by its degree there. Only the side being ranked is looked 
+     * at, and no vertex label is read. Bipartite ids follow the order the 
+     * users and stories were read in, so ties keep that order.
+     * 
+     * @param ratty - RATGraph object that contains bipartite graph variable
+     * @param topNum - number of users or stories to keep
+     * @param users - true to rank users, false to rank stories
+     * @returns ranked entries whose ids are user or story ids in 
+     *          ratty.getBipartite()
+     */
+    private static TopK.Entry[] rankByDegree(RATgraph ratty, int topNum, 
+                                             boolean users){
+        BipartiteGraph bipartite = ratty.getBipartite();
+        TopK top = new TopK(topNum);
+        if(users){
+            for(int u = 0; u < bipartite.getNumUsers(); u++){
+                top.offer(u, bipartite.getUserDegree(u));
             }
-        }
-        //instantiate a HeapSort object so that non-static 
-        //sortInDescending order method can be called
-        HeapSort<Integer> sorter = new HeapSort<Integer>();
-        //sort the Vector of activity scores
-        Vector<Integer> sortedScores = sorter.sortInDescending(popularityScores);
-        Vector<String> result = new Vector<String>();
-        //loop through the top scores wanted by driver and retrieve stories 
-        //in the LinkedList value
-        //using the scores in sortedScores as keys
-        for(int i = 0; i < topNum; i++){
-            int score = sortedScores.get(i);
-            System.out.println("Sorted scores" + sortedScores);
-            String intoResult = Integer.toString(i+1);
-            LinkedList<String> stories = popularityWithStory.get(score); 
-            for (int j = 0; j <stories.size(); j++) {
-                intoResult+= "," + stories.get(j);
-                intoResult += ":" + getStoryTitle(stories.get(j));
+        } else {
+            for(int s = 0; s < bipartite.getNumStories(); s++){
+                top.offer(s, bipartite.getStoryDegree(s));
             }
-            intoResult += "," + Integer.toString(score) + "\n";
-            //populate the Vector with Strings of "Rank, Story title, Score"
-            result.add(intoResult);
         }
-        return result;
+        return top.result();
     }
 
     /**
-     * Helper method that creates a Vector of all users in vertices 
+     * Helper method that returns all users in vertices. RATgraph keeps 
+     * the list as users are added, so nothing is scanned or copied.
      * 
      * @param ratty - RATGraph object that contains bipartite graph variable, 
-     * @returns users - Vector of all users
+     * @returns users - read-only List of all users
      */
-    public static Vector<String> getUsers(RATgraph ratty){
-        Vector<String> users = new Vector<String>();
-        Vector<String> allVerts = ratty.getGraph().getVertices();
-        for(int i = 0; i < allVerts.size(); i++){
-            if(isUser(allVerts.get(i))){
-                users.add(allVerts.get(i));
-            }
-        }
-        return users;
+    public static List<String> getUsers(RATgraph ratty){
+        return ratty.getUsers();
     }
 
     /**
-     * Helper method that creates a Vector of all stories in vertices 
+     * Helper method that returns all stories in vertices. RATgraph keeps 
+     * the list as stories are added, so nothing is scanned or copied.
      * 
      * @param ratty - RATGraph object that contains bipartite graph variable, 
-     * @returns stories - Vector of all stories
+     * @returns stories - read-only List of all stories
      */
-    public static Vector<String> getStories(RATgraph ratty){
-        Vector<String> stories = new Vector<String>();
-        Vector<String> allVerts = ratty.getGraph().getVertices();
-        for(int i = 0; i < allVerts.size(); i++){
-            if(isStory(allVerts.get(i))){
-                stories.add(allVerts.get(i));
-            }
-        }
-        return stories;
+    public static List<String> getStories(RATgraph ratty){
+        return ratty.getStories();
     }
 
     /**
-     * Helper method that checks if a vertex is a user
+     * Helper method that checks if a vertex is a user. RATgraph knows 
+     * which vertices it made for users, so the label is not looked at.
      * 
-     * @param s - String
-     * @returns true if String is a user
+     * @param ratty - RATGraph object that contains bipartite graph variable, 
+     * @param vertex - vertex of ratty.getGraph()
+     * @returns true if the vertex is a user
      */
-    public static boolean isUser(String s){
-        char c = s.toUpperCase().charAt(0);
-        return (c =='U');
+    public static boolean isUser(RATgraph ratty, Object vertex){
+        return ratty.isUser(vertex);
     }
 
     /**
      * Helper method that checks if a vertex is a story 
      * 
-     * @param s - String 
-     * @returns true if String is a story 
+     * @param ratty - RATGraph object that contains bipartite graph variable, 
+     * @param vertex - vertex of ratty.getGraph()
+     * @returns true if the vertex is a story 
      */
-    public static boolean isStory(String s){
-        char c = s.toUpperCase().charAt(0);
-        return (c != 'U');
+    public static boolean isStory(RATgraph ratty, Object vertex){
+        return ratty.isStory(vertex);
+    }
+
+    /**
+     * Returns the graph of an export, loaded from its snapshot file when 
+     * there is one at least as new as the export, so the export is not 
+     * read again. Otherwise the graph is built from the export and the 
+     * snapshot is written for the next time.
+     * 
+     * @param inFileName - the export
+     * @param snapshotFileName - where the snapshot of the graph is kept
+     * @returns graph - read-only graph, with every vertex as a String
+     */
+    public static CsrGraph<String> loadGraph(String inFileName, String snapshotFileName) 
+    throws IOException {
+        File snapshot = new File(snapshotFileName);
+        if(snapshot.exists() && 
+           snapshot.lastModified() >= new File(inFileName).lastModified()){
+            try{
+                return GraphSnapshot.load(snapshotFileName);
+            } catch (IOException ex) {
+                // damaged or out of date: made again from the export below
+            }
+        }
+        RATgraph ratty = new RATgraph(inFileName);
+        GraphSnapshot.save(ratty.getSnapshot(), snapshotFileName);
+        return GraphSnapshot.load(snapshotFileName);
     }
 
     /**
      * Main method for testing
      */
-    public static void main(String[] args)
+    public static void main(String[] args) throws IOException
     {
-        // read RATgraph.tgf
-        RATgraph ratty = new RATgraph("All_Russian-Accounts-in-TT-stories.csv.tsv");
-        ratty.getGraph().saveToTGF("RATgraph.tgf"); 
+        // the graph on its own comes from its snapshot after the first run,
+        // instead of being built from the export every time
+        String export = "All_Russian-Accounts-in-TT-stories.csv.tsv";
+        CsrGraph<String> graph = loadGraph(export, "RATgraph.snapshot");
+        graph.saveToTGF("RATgraph.tgf"); 
+
+        // the rankings below need to know the users and stories, which 
+        // only the export has
+        RATgraph ratty = new RATgraph(export);
 
         // find user with the largest connected component
         //System.out.println("**Most connected User**"); 
@@ -368,12 +486,13 @@ public class Investigate
 
         //testing most central user 
         System.out.println(); 
-        //System.out.println("**Most Central User**"); 
-        //System.out.println(findMostCentralUser(ratty));
+        System.out.println("**Most Central User**"); 
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println(findMostCentralUser(ratty, cores).toString(5));
 
         System.out.println(); 
-        //System.out.println("**Most Central Story**"); 
-        //System.out.println(findMostCentralStory(ratty));
+        System.out.println("**Most Central Story**"); 
+        System.out.println(findMostCentralStory(ratty, cores).toString(5));
 
         
 
@@ -381,23 +500,39 @@ public class Investigate
         System.out.println(); 
         System.out.println("***User Leaderboard***"); 
         System.out.println("Expected line 1: 1,Jenn_Abrams,144"); 
-        System.out.println(getUserLeaderboard(ratty, 5));
+        PrintWriter out = new PrintWriter(System.out);
+        userLeaderboard(ratty, 5).render(out);
 
         // find most popular stories
         System.out.println();     
         System.out.println("***Story Leaderboard***"); 
-        System.out.println(getStoryLeaderboard(ratty, 20));
+        storyLeaderboard(ratty, 20).render(out);
+
+        // users amplifying the same stories
+        System.out.println();     
+        System.out.println("***Users sharing at least 5 stories***"); 
+        CsrGraph<String> pairs = getUserProjection(ratty, 5, cores);
+        System.out.println(pairs.getNumArcs() / 2 + " pairs of users");
+
+        // stories pushed by the same accounts
+        System.out.println();     
+        System.out.println("***Most Central Story among the 10 closest of each***"); 
+        CsrGraph<String> related = getStoryProjection(ratty, 10, cores);
+        System.out.println(related.getComponents().getNumComponents() + " components");
+        System.out.println(new ClosenessCentrality<String>(related)
+                           .rank(getStories(ratty), cores).toString(5));
 
         // print vertices
         System.out.println();     
         System.out.println("*** Number of vertices ***"); 
-        System.out.println(ratty.getGraph().getNumVertices());
+        System.out.println(graph.getNumVertices());
 
         // testing getStoryTitle method
         System.out.println(); 
         System.out.println("TESTING getStoryTitle()"); 
         System.out.println(getStoryTitle("147909124"));
         System.out.println(getStoryTitle("2701461461"));
+        System.out.println(getTitleCache());
 
        
 
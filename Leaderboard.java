@@ -0,0 +1,265 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javafoundations.TopK;
+
+/**
+ * The ranked rows of a user or story leaderboard. Story titles are not
+ * looked up when the leaderboard is made: a row looks up its title the
+ * first time it is asked for, and render looks up the titles of just the
+ * rows it writes, all at once, before streaming them to a Writer. Either
+ * way titles come from the title cache, and the ones it lacks are fetched
+ * through the resolver, with its timeout. Rows that are never shown never cost
+ * a lookup.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class Leaderboard
+{
+    private Row[] rows;
+    private TitleCache titles; // null if rows are users, which have no titles
+    private TitleResolver resolver; // fetches the titles titles lacks
+
+    /**
+     * Constructor
+     *
+     * @param entries - ranked entries, best first
+     * @param labels - labels[i] is the user or story of entries[i]
+     * @param titles - where the titles of the stories are found, or null
+     *                 if the labels are users
+     * @param resolver - fetches titles not in titles several at a time,
+     *                   null if titles is
+     */
+    public Leaderboard(TopK.Entry[] entries, String[] labels, TitleCache titles,
+                       TitleResolver resolver){
+        this.titles = titles;
+        this.resolver = resolver;
+        rows = new Row[entries.length];
+        for(int i = 0; i < entries.length; i++){
+            rows[i] = new Row(entries[i].getRank(), labels[i], entries[i].getScore(),
+                              titles, resolver);
+        }
+    }
+
+    /**
+     * Returns the number of rows
+     */
+    public int size(){
+        return rows.length;
+    }
+
+    /**
+     * Getter for a row, without looking up its title
+     *
+     * @param i - from 0 to size() - 1
+     */
+    public Row getRow(int i){
+        return rows[i];
+    }
+
+    /**
+     * Looks up the titles of the first rows that do not have them yet, in
+     * one batch
+     *
+     * @param count - how many rows from the top need titles
+     */
+    public void resolveTitles(int count){
+        if(titles == null){
+            return;
+        }
+        int last = Math.min(Math.max(count, 0), rows.length);
+        List<String> stories = new ArrayList<String>();
+        for(int i = 0; i < last; i++){
+            if(rows[i].title == null){
+                stories.add(rows[i].label);
+            }
+        }
+        if(stories.isEmpty()){
+            return;
+        }
+        Map<String, String> found = titles.getAll(stories, resolver);
+        for(int i = 0; i < last; i++){
+            if(rows[i].title == null){
+                rows[i].title = found.get(rows[i].label);
+            }
+        }
+    }
+
+    /**
+     * Writes every row, one per line
+     *
+     * @param out - where to write; it is flushed but not closed
+     */
+    public void render(Writer out) throws IOException {
+        render(out, rows.length);
+    }
+
+    /**
+     * Writes the first rows, one per line, looking up titles only for them
+     *
+     * @param out - where to write; it is flushed but not closed
+     * @param count - how many rows to write
+     */
+    public void render(Writer out, int count) throws IOException {
+        count = Math.min(Math.max(count, 0), rows.length);
+        resolveTitles(count);
+        for(int i = 0; i < count; i++){
+            rows[i].write(out);
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns every row, one per line
+     */
+    public String toString(){
+        StringWriter out = new StringWriter();
+        try{
+            render(out);
+        } catch (IOException ex) {
+            // a StringWriter does not throw
+        }
+        return out.toString();
+    }
+
+    /**
+     * One ranked user or story, with a story's title looked up when first
+     * needed
+     */
+    public static class Row
+    {
+        private final int rank;
+        private final String label;
+        private final long score;
+        private final TitleCache titles; // null for a user
+        private final TitleResolver resolver; // null for a user
+        private volatile String title; // null until looked up
+
+        private Row(int rank, String label, long score, TitleCache titles,
+                    TitleResolver resolver){
+            this.rank = rank;
+            this.label = label;
+            this.score = score;
+            this.titles = titles;
+            this.resolver = resolver;
+        }
+
+        public int getRank(){
+            return rank;
+        }
+
+        /**
+         * Getter for the screen name of the user or id of the story
+         */
+        public String getLabel(){
+            return label;
+        }
+
+        public long getScore(){
+            return score;
+        }
+
+        /**
+         * Getter for the title of a story, looked up the first time
+         *
+         * @return the title, "" if it cannot be found, null for a user
+         */
+        public synchronized String getTitle(){
+            if(titles != null && title == null){
+                // one story through the resolver, like a batch in render
+                List<String> story = Collections.singletonList(label);
+                title = titles.getAll(story, resolver).get(label);
+            }
+            return title;
+        }
+
+        /**
+         * Writes "rank,user,score" or "rank,story:title,score"
+         */
+        void write(Writer out) throws IOException {
+            out.write(Integer.toString(rank));
+            out.write(',');
+            out.write(label);
+            if(titles != null){
+                out.write(':');
+                out.write(getTitle());
+            }
+            out.write(',');
+            out.write(Long.toString(score));
+        }
+
+        /**
+         * Returns "rank,user,score" or "rank,story:title,score"
+         */
+        public String toString(){
+            StringWriter out = new StringWriter();
+            try{
+                write(out);
+            } catch (IOException ex) {
+                // a StringWriter does not throw
+            }
+            return out.toString();
+        }
+    }
+
+    /**
+     * Main method for testing
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("***TESTING Leaderboard***");
+        TopK top = new TopK(3);
+        top.offer(0, 5);
+        top.offer(1, 9);
+        top.offer(2, 5);
+        TopK.Entry[] entries = top.result();
+        String[] names = {"Ua", "Ub", "Uc"};
+        String[] labels = new String[entries.length];
+        for(int i = 0; i < entries.length; i++){
+            labels[i] = names[entries[i].getId()];
+        }
+        Leaderboard users = new Leaderboard(entries, labels, null, null);
+        System.out.println("users--> expected: 1,Ub,9|2,Ua,5|2,Uc,5|, actual: " + 
+                           users.toString().replace('\n', '|'));
+
+        final int[] fetched = {0};
+        final Function<String, String> fake = new Function<String, String>(){
+            public String apply(String storyCode){
+                synchronized(fetched){
+                    fetched[0]++;
+                }
+                return storyCode.equals("20") ? null : "Title " + storyCode;
+            }
+        };
+        TitleSource source = new TitleSource(){
+            public String fetchTitle(String storyCode){
+                return fake.apply(storyCode);
+            }
+        };
+        File file = File.createTempFile("Leaderboard", ".tsv");
+        file.delete();
+        file.deleteOnExit();
+        TitleCache cache = new TitleCache(file.getPath(), fake);
+        TitleResolver resolver = new TitleResolver(source, 2, 1000);
+        for(int i = 0; i < entries.length; i++){
+            labels[i] = Integer.toString(10 * (entries[i].getId() + 1));
+        }
+        Leaderboard stories = new Leaderboard(entries, labels, cache, resolver);
+        System.out.println("fetched before render--> expected: 0, actual: " + fetched[0]);
+        StringWriter out = new StringWriter();
+        stories.render(out, 2);
+        System.out.println("first two--> expected: 1,20:,9|2,10:Title 10,5|, actual: " + 
+                           out.toString().replace('\n', '|'));
+        System.out.println("fetched after render--> expected: 2, actual: " + fetched[0]);
+        System.out.println("third--> expected: 2,30:Title 30,5, actual: " + stories.getRow(2));
+        System.out.println("fetched after third--> expected: 3, actual: " + fetched[0]);
+        System.out.println("resolver fetched--> expected: 3, actual: " + resolver.getNumFetched());
+        stories.render(new StringWriter());
+        System.out.println("fetched after render all--> expected: 3, actual: " + fetched[0]);
+        resolver.shutdown();
+    }
+}
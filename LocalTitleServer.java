@@ -0,0 +1,78 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A small HTTP server on this machine that answers title requests the way
+ * TwitterTrails' title.php does, taking the titles from another
+ * TitleSource. Pointing an HttpTitleSource at it lets title lookups, and
+ * the leaderboards that need them, be timed without the network.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class LocalTitleServer
+{
+    private HttpServer server;
+    private ExecutorService pool;
+
+    /**
+     * Constructor
+     * Starts a server on a free port answering from the given source.
+     *
+     * @param titles - where the titles come from
+     */
+    public LocalTitleServer(final TitleSource titles) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/title.php", new HttpHandler(){
+                public void handle(HttpExchange exchange) throws IOException {
+                    answer(exchange, titles);
+                }
+            });
+        // one thread per request, so a slow source does not hold up the others
+        pool = Executors.newCachedThreadPool();
+        server.setExecutor(pool);
+        server.start();
+    }
+
+    /**
+     * Sends the title asked for, between lines of html, or 404 if the
+     * source has no title for it
+     */
+    private static void answer(HttpExchange exchange, TitleSource titles)
+    throws IOException {
+        String query = exchange.getRequestURI().getRawQuery();
+        String storyCode = "";
+        if(query != null && query.startsWith("id=")){
+            storyCode = URLDecoder.decode(query.substring(3), "UTF-8");
+        }
+        String title = titles.fetchTitle(storyCode);
+        byte[] body = (title == null) ? new byte[0]
+            : ("<html><body>\n" + title + "\n</body></html>\n").getBytes("UTF-8");
+        exchange.sendResponseHeaders((title == null) ? 404 : 200, 
+                                     (body.length == 0) ? -1 : body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    /**
+     * Getter for the address to add story ids to, for an HttpTitleSource
+     */
+    public String getBaseUrl(){
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/title.php?id=";
+    }
+
+    /**
+     * Stops the server
+     */
+    public void stop(){
+        server.stop(0);
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,338 @@
+import javafoundations.*;
+import java.io.*;
+import java.util.*;
+/**
+ * Times how long it takes to build a RATgraph from exports that are
+ * larger than the All_Russian-Accounts-in-TT-stories.csv.tsv sample.
+ * The larger exports are synthesized by copying every row of the sample
+ * several times, giving each copy its own screen names and story ids so
+ * the graph grows by the same factor.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class RATbenchmark
+{
+    // the sample export every synthetic file is scaled from
+    private static final String SAMPLE = "All_Russian-Accounts-in-TT-stories.csv.tsv";
+    // added to every story id once per copy so copies never share stories
+    private static final long STORY_OFFSET = 10000000000L;
+
+    /**
+     * Writes a copy of the sample export that is factor times larger
+     *
+     * @param factor - how many copies of every row to write
+     * @return the temporary file holding the scaled export
+     */
+    public static File scaleSample(int factor) throws IOException {
+        File scaled = File.createTempFile("RATbenchmark-" + factor + "x-", ".tsv");
+        scaled.deleteOnExit();
+        BufferedReader reader = new BufferedReader(new FileReader(SAMPLE));
+        PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(scaled)));
+
+        writer.println(reader.readLine()); // header
+        Vector<String[]> rows = new Vector<String[]>();
+        String line;
+        while((line = reader.readLine()) != null){
+            rows.add(line.split("\t"));
+        }
+        reader.close();
+
+        for(int copy = 0; copy < factor; copy++){
+            for(int i = 0; i < rows.size(); i++){
+                String[] row = rows.get(i);
+                writer.print(row[0] + "_" + copy + "\t" + row[1] + "\t" +
+                    row[2] + "\t" + row[3] + "\t");
+                String[] stories = row[4].split(",");
+                for(int j = 0; j < stories.length; j++){
+                    if(j > 0){
+                        writer.print(",");
+                    }
+                    writer.print(Long.parseLong(stories[j]) + copy * STORY_OFFSET);
+                }
+                writer.println();
+            }
+        }
+        writer.close();
+        return scaled;
+    }
+
+    /**
+     * Builds a RATgraph from the given file and reports how long it took
+     *
+     * @param label - name of the run shown in the report
+     * @param inFileName - export to load
+     * @return milliseconds spent loading
+     */
+    public static long timeLoad(String label, String inFileName){
+        long start = System.nanoTime();
+        RATgraph ratty = new RATgraph(inFileName);
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println(label + ": " + ratty.getGraph().getNumVertices() +
+            " vertices, " + ratty.getGraph().getNumArcs() + " arcs, loaded in " +
+            millis + " ms");
+        return millis;
+    }
+
+    /**
+     * Builds a RATgraph by memory mapping the given file and parsing it on
+     * several threads, and reports how long it took
+     *
+     * @param label - name of the run shown in the report
+     * @param inFileName - export to load
+     * @param threads - number of threads parsing the file
+     * @return milliseconds spent loading
+     */
+    public static long timeMappedLoad(String label, String inFileName, int threads){
+        long start = System.nanoTime();
+        RATgraph ratty = new RATgraph(inFileName, threads);
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println(label + ": " + ratty.getGraph().getNumVertices() +
+            " vertices, " + ratty.getGraph().getNumArcs() + " arcs, loaded in " +
+            millis + " ms on " + threads + " threads");
+        return millis;
+    }
+
+    /**
+     * Builds the graph of the given file and saves its snapshot, then 
+     * loads it back from the snapshot as a later run would, and reports 
+     * how long each took
+     *
+     * @param label - name of the run shown in the report
+     * @param inFileName - export to load
+     * @return milliseconds spent loading the snapshot
+     */
+    public static long timeSnapshotLoad(String label, String inFileName) throws IOException {
+        File snapshot = File.createTempFile("RATbenchmark-", ".snapshot");
+        snapshot.deleteOnExit();
+        snapshot.delete();
+        long start = System.nanoTime();
+        Investigate.loadGraph(inFileName, snapshot.getPath());
+        long built = (System.nanoTime() - start) / 1000000;
+        start = System.nanoTime();
+        CsrGraph<String> graph = Investigate.loadGraph(inFileName, snapshot.getPath());
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println(label + ": " + graph.getNumVertices() + " vertices, " + 
+            graph.getNumArcs() + " arcs, built and saved in " + built + 
+            " ms, loaded from the snapshot in " + millis + " ms");
+        snapshot.delete();
+        return millis;
+    }
+
+    /**
+     * Tokenizes the given file without building a graph and reports the
+     * parsing throughput
+     *
+     * @param label - name of the run shown in the report
+     * @param inFileName - export to parse
+     * @return megabytes parsed per second
+     */
+    public static double timeParse(String label, String inFileName) throws IOException {
+        final long[] counts = new long[2]; // users, stories
+        RATreader reader = new RATreader();
+        long start = System.nanoTime();
+        reader.read(inFileName, new RATreader.Handler(){
+                public void user(String screenName, long userId, int tweetCount, 
+                                 int storyCount){
+                    counts[0]++;
+                }
+
+                public void story(long storyId){
+                    counts[1]++;
+                }
+
+                public void malformed(long lineNumber, String reason){
+                }
+            });
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double megabytes = reader.getBytesRead() / (1024.0 * 1024.0);
+        double throughput = megabytes / seconds;
+        System.out.println(label + ": " + counts[0] + " users, " + counts[1] + 
+            " story ids, " + String.format("%.1f MB in %.3f s = %.1f MB/s", 
+            megabytes, seconds, throughput));
+        return throughput;
+    }
+
+    /**
+     * Returns the number of successors of every vertex of a graph
+     *
+     * @param inFileName - export to load
+     * @return the degree of each vertex, in vertex order
+     */
+    public static int[] degrees(String inFileName){
+        AdjListsGraph<Object> graph = new RATgraph(inFileName).getGraph();
+        int[] degrees = new int[graph.getNumVertices()];
+        for(int i = 0; i < degrees.length; i++){
+            degrees[i] = graph.getNumSuccessors(i);
+        }
+        return degrees;
+    }
+
+    /**
+     * Pushes every value through each kind of max heap and removes them
+     * all again, reporting how long each heap took. The largest-first 
+     * orders are summed into a checksum so every heap can be seen to 
+     * agree and the work cannot be skipped.
+     *
+     * @param label - name of the run shown in the report
+     * @param values - values to sort through the heaps
+     */
+    public static void timeHeaps(String label, int[] values){
+        Integer[] boxed = new Integer[values.length];
+        for(int i = 0; i < values.length; i++){
+            boxed[i] = values[i];
+        }
+
+        long start = System.nanoTime();
+        MaxHeap<Integer> linked = new LinkedMaxHeap<Integer>();
+        for(int i = 0; i < boxed.length; i++){
+            linked.add(boxed[i]);
+        }
+        long checksum = drain(linked, boxed.length);
+        reportHeap(label, "LinkedMaxHeap add", start, checksum);
+
+        start = System.nanoTime();
+        MaxHeap<Integer> array = new ArrayMaxHeap<Integer>();
+        for(int i = 0; i < boxed.length; i++){
+            array.add(boxed[i]);
+        }
+        checksum = drain(array, boxed.length);
+        reportHeap(label, "ArrayMaxHeap add", start, checksum);
+
+        start = System.nanoTime();
+        checksum = drain(new ArrayMaxHeap<Integer>(boxed), boxed.length);
+        reportHeap(label, "ArrayMaxHeap heapify", start, checksum);
+
+        start = System.nanoTime();
+        IntMaxHeap ints = new IntMaxHeap(values);
+        checksum = 0;
+        for(int i = 0; i < values.length; i++){
+            checksum = checksum * 31 + ints.removeMax();
+        }
+        reportHeap(label, "IntMaxHeap heapify", start, checksum);
+    }
+
+    /**
+     * Removes n elements from a heap and returns a checksum of their order
+     */
+    private static long drain(MaxHeap<Integer> heap, int n){
+        long checksum = 0;
+        for(int i = 0; i < n; i++){
+            checksum = checksum * 31 + heap.removeMax();
+        }
+        return checksum;
+    }
+
+    private static void reportHeap(String label, String heap, long start, long checksum){
+        long micros = (System.nanoTime() - start) / 1000;
+        System.out.println(label + " " + heap + ": " + micros + " us (checksum " + 
+            checksum + ")");
+    }
+
+    /**
+     * Times making the story leaderboard with titles served by a local
+     * server that takes delayMillis to answer each request, first looking 
+     * the titles up one at a time, then with a TitleResolver, then again 
+     * with every title cached
+     *
+     * @param topNum - number of stories on the leaderboard
+     * @param delayMillis - how long the server takes per title
+     */
+    public static void timeTitles(int topNum, long delayMillis) throws IOException {
+        RATgraph ratty = new RATgraph(SAMPLE);
+        HashMap<String, String> titles = new HashMap<String, String>();
+        List<String> stories = ratty.getStories();
+        for(int i = 0; i < stories.size(); i++){
+            titles.put(stories.get(i), "Title of story " + stories.get(i));
+        }
+        LocalTitleServer server = new LocalTitleServer(new FileTitleSource(titles, delayMillis));
+        TitleSource http = new HttpTitleSource(server.getBaseUrl(), 0);
+        TitleSource oldSource = Investigate.getTitleSource();
+        TitleCache oldCache = Investigate.getTitleCache();
+        File cacheFile = File.createTempFile("RATbenchmark-titles-", ".tsv");
+        cacheFile.deleteOnExit();
+        try{
+            Investigate.setTitleSource(http);
+            TopK.Entry[] top = Investigate.rankStoriesByPopularity(ratty, topNum);
+            long start = System.nanoTime();
+            for(int i = 0; i < top.length; i++){
+                Investigate.fetchStoryTitle(ratty.getStoryVertex(top[i].getId()));
+            }
+            System.out.println(topNum + " titles one at a time: " + 
+                (System.nanoTime() - start) / 1000000 + " ms");
+
+            cacheFile.delete();
+            TitleCache cache = new TitleCache(cacheFile.getPath(), Investigate::fetchStoryTitle);
+            Investigate.setTitleCache(cache);
+            start = System.nanoTime();
+            Investigate.getStoryLeaderboard(ratty, topNum);
+            System.out.println("leaderboard of " + topNum + ", resolved together: " + 
+                (System.nanoTime() - start) / 1000000 + " ms, " + cache);
+
+            // a new cache on the same file, as in the next run of the program
+            cache = new TitleCache(cacheFile.getPath(), Investigate::fetchStoryTitle);
+            Investigate.setTitleCache(cache);
+            start = System.nanoTime();
+            Investigate.getStoryLeaderboard(ratty, topNum);
+            System.out.println("leaderboard of " + topNum + ", from the cache file: " + 
+                (System.nanoTime() - start) / 1000000 + " ms, " + cache);
+        } finally {
+            Investigate.setTitleSource(oldSource);
+            Investigate.setTitleCache(oldCache);
+            server.stop();
+        }
+    }
+
+    /**
+     * Main method, runs the load benchmark at 1x, 10x and 100x the sample,
+     * then the parsing throughput benchmark on a large synthetic file, 
+     * then the mapped load, then compares building the graph with loading 
+     * its snapshot, then compares the heaps on the vertex degrees of the 
+     * graph, then times looking up story titles from a local server
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("***LOAD BENCHMARK***");
+        timeLoad("warm up", SAMPLE);
+        timeLoad("1x", SAMPLE);
+        String tenTimes = scaleSample(10).getPath();
+        String hundredTimes = scaleSample(100).getPath();
+        timeLoad("10x", tenTimes);
+        timeLoad("100x", hundredTimes);
+
+        System.out.println();
+        System.out.println("***PARSE THROUGHPUT***");
+        for(int i = 0; i < 3; i++){
+            timeParse("warm up", tenTimes);
+        }
+        timeParse("100x", hundredTimes);
+        String thousandTimes = scaleSample(1000).getPath();
+        timeParse("1000x", thousandTimes);
+
+        System.out.println();
+        System.out.println("***MAPPED LOAD***");
+        int cores = Runtime.getRuntime().availableProcessors();
+        timeMappedLoad("warm up", tenTimes, cores);
+        timeLoad("100x streamed", hundredTimes);
+        timeMappedLoad("100x mapped", hundredTimes, cores);
+
+        System.out.println();
+        System.out.println("***SNAPSHOT LOAD***");
+        timeSnapshotLoad("warm up", tenTimes);
+        timeSnapshotLoad("1x", SAMPLE);
+        timeSnapshotLoad("100x", hundredTimes);
+
+        System.out.println();
+        System.out.println("***HEAP COMPARISON***");
+        int[] sampleDegrees = degrees(SAMPLE);
+        for(int i = 0; i < 3; i++){
+            timeHeaps("warm up", sampleDegrees);
+        }
+        timeHeaps("1x", sampleDegrees);
+        timeHeaps("10x", degrees(tenTimes));
+
+        System.out.println();
+        System.out.println("***TITLE RESOLUTION***");
+        timeTitles(20, 50);
+        timeTitles(200, 50);
+    }
+}
@@ -12,6 +12,19 @@ public class RATgraph
 {
     // instance variables
     private AdjListsGraph<Object> graph;
+    private RATreader reader;
+    private BipartiteGraph bipartite; // users and stories in their own id 
+    // spaces; the one place that says which vertex is a user or a story
+    private IntList userVertices; // user id in bipartite -> position in graph
+    private IntList storyVertices; // story id in bipartite -> position in graph
+    private IntList owners; // position in graph -> user id, or -1 - story id
+    private List<String> userView; // read-only views of the user and story
+    private List<String> storyView; // vertices, in bipartite id order
+    private CsrGraph<Object> snapshot; // read-only copy of graph, taken
+    // the first time it is asked for after the graph was last changed
+    private int snapshotModCount; // graph.getModCount() when it was taken
+    private GraphBuilder<Object> loading; // collects the first export read 
+    // into an empty graph, null at every other time
 
     /**
      * Constructor for objects of class RATgraph
@@ -19,43 +32,169 @@ public class RATgraph
     public RATgraph(String inFileName)
     {
         graph = new AdjListsGraph<Object>();
+        reader = new RATreader();
+        bipartite = new BipartiteGraph();
+        userVertices = new IntList();
+        storyVertices = new IntList();
+        owners = new IntList();
+        userView = new VertexList(userVertices);
+        storyView = new VertexList(storyVertices);
         readFromFile(inFileName);
     }
 
+    /**
+     * Constructor for objects of class RATgraph that memory maps the file
+     * and parses it on several threads
+     *
+     * @param  inFileName - the file being read
+     * @param  threads - number of threads parsing the file
+     */
+    public RATgraph(String inFileName, int threads)
+    {
+        graph = new AdjListsGraph<Object>();
+        reader = new RATreader();
+        bipartite = new BipartiteGraph();
+        userVertices = new IntList();
+        storyVertices = new IntList();
+        owners = new IntList();
+        userView = new VertexList(userVertices);
+        storyView = new VertexList(storyVertices);
+        readFromFileMapped(inFileName, threads);
+    }
+
     /**
      * Reads file and converts each line into some nodes
-     * and edges. 
+     * and edges. The file is streamed through a RATreader, and lines
+     * that cannot be parsed are reported and skipped. If the graph is 
+     * still empty the edges are collected by a GraphBuilder and the graph 
+     * is built from them in one pass once the whole file has been read. 
+     * Otherwise they are added straight to the graph, so reading another 
+     * export only costs as much as that export.
      *
      * @param  inFileName- the file being read
      */
     public void readFromFile(String inFileName)
     {
+        startLoading();
+        try{
+            reader.read(inFileName, newHandler(inFileName));
+        }catch(IOException e){
+            System.out.println(e);
+        }
+        finishLoading();
+    }
+
+    /**
+     * Reads file the same way as readFromFile, but memory maps it and 
+     * parses line-aligned chunks of it on several threads. Meant for full 
+     * TwitterTrails dumps that are far larger than the 2019 sample; the 
+     * resulting graph is identical to the one readFromFile builds.
+     *
+     * @param  inFileName- the file being read
+     * @param  threads - number of threads parsing the file
+     */
+    public void readFromFileMapped(String inFileName, int threads)
+    {
+        startLoading();
         try{
-            Scanner scan = new Scanner(new File(inFileName));
-            scan.nextLine();
+            reader.readMapped(inFileName, threads, newHandler(inFileName));
+        }catch(IOException e){
+            System.out.println(e);
+        }
+        finishLoading();
+    }
+
+    /**
+     * Starts collecting vertices and edges in a GraphBuilder if the graph 
+     * is empty
+     */
+    private void startLoading(){
+        if(graph.isEmpty()){
+            loading = new GraphBuilder<Object>();
+        }
+    }
+
+    /**
+     * Builds the graph from the GraphBuilder, if one was used
+     */
+    private void finishLoading(){
+        if(loading != null){
+            graph = loading.build();
+            loading = null;
+            snapshot = null; // the new graph counts its changes from 0 again
+        }
+    }
+
+    /**
+     * Adds a vertex to the builder or, if none is in use, to the graph
+     *
+     * @return the position of the vertex
+     */
+    private int addVertex(Object vertex){
+        if(loading != null){
+            return loading.addVertex(vertex);
+        }
+        graph.addVertex(vertex);
+        return graph.getIndex(vertex);
+    }
 
-            while(scan.hasNextLine()){
-                String line = scan.nextLine();
-                String[] lines = line.split("[,\\s]+");
+    /**
+     * Adds the arcs both ways between two positions to the builder or, if 
+     * none is in use, to the graph
+     */
+    private void addEdge(int position1, int position2){
+        if(loading != null){
+            loading.addEdge(position1, position2);
+        } else {
+            graph.addEdge(graph.getVertex(position1), graph.getVertex(position2));
+        }
+    }
+
+    /**
+     * Makes the handler that turns the lines of a file into nodes and 
+     * edges of the graph
+     *
+     * @param  inFileName- the file being read, for error messages
+     * @return handler that adds every user and story to the graph
+     */
+    private RATreader.Handler newHandler(final String inFileName)
+    {
+        return new RATreader.Handler(){
+            private int user; // bipartite id of the user of the line
+            private int userNum; // its position in graph
+
+            public void user(String screenName, long userId, 
+                             int tweetCount, int storyCount){
                 // Create user: name, user_id, tweetcount, story count
-                //User newUser = new User(lines[0], lines[1], lines[2], lines[3]);
-                String userNum = "U"+lines[0];
-                // create a user node
-                graph.addVertex(userNum);
-
-                for(int i = 4; i <lines.length; i++){
-                    String storyNum = lines[i]; 
-                    graph.addVertex(storyNum);
-                    // add edge between each story and each user
-                    graph.addEdge(userNum, storyNum);
+                user = bipartite.addUser(screenName, userId, tweetCount, 
+                                         storyCount);
+                if(user == userVertices.size()){
+                    // create a user node the first time the user is seen
+                    int position = addVertex("U" + screenName);
+                    userVertices.add(position);
+                    setOwner(position, user);
                 }
-
+                userNum = userVertices.get(user);
             }
 
-        }catch(FileNotFoundException e){
-            System.out.println(e);
-        }
+            public void story(long storyId){
+                // only the first time a story is seen is its vertex made
+                int story = bipartite.addStory(storyId);
+                if(story == storyVertices.size()){
+                    int position = addVertex(Long.toString(storyId));
+                    storyVertices.add(position);
+                    setOwner(position, -1 - story);
+                }
+                // add edge between each story and each user
+                bipartite.addEdge(user, story);
+                addEdge(userNum, storyVertices.get(story));
+            }
 
+            public void malformed(long lineNumber, String reason){
+                System.out.println(inFileName + ", line " + lineNumber + 
+                                   ": " + reason);
+            }
+        };
     }
     
    /**
@@ -63,10 +202,174 @@ public class RATgraph
      *
      * @return  graph - bipartite graph
      */ 
-    public AdjListsGraph getGraph(){
+    public AdjListsGraph<Object> getGraph(){
         return graph;
     }
 
+    /**
+     * Getter for the typed bipartite graph, in which users and stories are 
+     * numbered separately and users keep their user_id, tweet_count and 
+     * story_count
+     *
+     * @return  bipartite - the users and stories of the graph
+     */ 
+    public BipartiteGraph getBipartite(){
+        return bipartite;
+    }
+
+    /**
+     * Records which user or story the vertex at a position of graph 
+     * stands for
+     *
+     * @param  position - position of the vertex in graph
+     * @param  owner - user id, or -1 - story id
+     */
+    private void setOwner(int position, int owner){
+        while(owners.size() <= position){
+            owners.add(0);
+        }
+        owners.set(position, owner);
+    }
+
+    /**
+     * Getter for the vertex of graph that stands for a user
+     *
+     * @param  user - id of the user in getBipartite()
+     * @return  the "U" + screen name vertex of the user
+     */ 
+    public String getUserVertex(int user){
+        return (String) graph.getVertex(userVertices.get(user));
+    }
+
+    /**
+     * Getter for the vertex of graph that stands for a story
+     *
+     * @param  story - id of the story in getBipartite()
+     * @return  the story id vertex of the story
+     */ 
+    public String getStoryVertex(int story){
+        return (String) graph.getVertex(storyVertices.get(story));
+    }
+
+    /**
+     * Returns true if a vertex of graph stands for a user. The answer 
+     * comes from the bipartite graph, not from how the vertex is spelled.
+     *
+     * @param  vertex - a vertex of graph
+     * @return  true if vertex is a user, false if it is a story or 
+     *          not in graph
+     */ 
+    public boolean isUser(Object vertex){
+        int position = graph.getIndex(vertex);
+        return position != -1 && position < owners.size() && owners.get(position) >= 0;
+    }
+
+    /**
+     * Returns true if a vertex of graph stands for a story
+     *
+     * @param  vertex - a vertex of graph
+     * @return  true if vertex is a story, false if it is a user or 
+     *          not in graph
+     */ 
+    public boolean isStory(Object vertex){
+        int position = graph.getIndex(vertex);
+        return position != -1 && position < owners.size() && owners.get(position) < 0;
+    }
+
+    /**
+     * Getter for the user vertices of graph, in the order they were 
+     * added. The list is kept up to date as files are read and cannot be 
+     * changed by the caller; the same list is returned on every call.
+     *
+     * @return  read-only list of the "U" + screen name vertices
+     */ 
+    public List<String> getUsers(){
+        return userView;
+    }
+
+    /**
+     * Getter for the story vertices of graph, in the order they were 
+     * added. The list is kept up to date as files are read and cannot be 
+     * changed by the caller; the same list is returned on every call.
+     *
+     * @return  read-only list of the story id vertices
+     */ 
+    public List<String> getStories(){
+        return storyView;
+    }
+
+    /**
+     * Getter for the reader used to load the exports, which counts the 
+     * lines, bytes and malformed lines read
+     *
+     * @return  reader - the reader of this graph
+     */ 
+    public RATreader getReader(){
+        return reader;
+    }
+
+    /**
+     * Getter for the number of clusters (connected components) in the 
+     * graph. It is kept up to date while edges are added, by the 
+     * GraphBuilder during the first read and by the graph after that, so 
+     * it can be checked during or after each export to watch clusters 
+     * merge.
+     *
+     * @return  number of connected components
+     */ 
+    public int getNumClusters(){
+        return (loading != null) ? loading.getNumComponents() : 
+            graph.getNumComponents();
+    }
+
+    /**
+     * Getter for the number of users and stories in the largest cluster, 
+     * kept up to date while edges are added, the same way as 
+     * getNumClusters
+     *
+     * @return  size of the largest connected component
+     */ 
+    public int getLargestClusterSize(){
+        return (loading != null) ? loading.getLargestComponentSize() : 
+            graph.getLargestComponentSize();
+    }
+
+    /**
+     * Getter for a read-only snapshot of the graph, whose traversals
+     * run over primitive arrays. It is taken again if the graph has been
+     * changed since, including through getGraph.
+     *
+     * @return  snapshot - frozen copy of the bipartite graph
+     */ 
+    public CsrGraph<Object> getSnapshot(){
+        if(snapshot == null || snapshotModCount != graph.getModCount()){
+            snapshot = graph.freeze();
+            snapshotModCount = graph.getModCount();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Read-only list of the vertices of graph at the given positions, so 
+     * the users and stories are listed without copying their labels
+     */
+    private class VertexList extends AbstractList<String> 
+    {
+        private IntList positions;
+
+        VertexList(IntList positions){
+            this.positions = positions;
+        }
+
+        public String get(int i){
+            return (String) graph.getVertex(positions.get(i));
+        }
+
+        public int size(){
+            return positions.size();
+        }
+    }
+
     /**
      * toString method converts the graph into a nice
      * looking string
@@ -85,6 +388,59 @@ public class RATgraph
         
         System.out.println("***TESTING RATgraph***"); 
         System.out.println(ratty); 
+        System.out.println("clusters: " + ratty.getNumClusters() + 
+                           ", largest: " + ratty.getLargestClusterSize()); 
+        System.out.println("users: " + ratty.getBipartite().getNumUsers() + 
+                           ", stories: " + ratty.getBipartite().getNumStories() + 
+                           ", edges: " + ratty.getBipartite().getNumEdges()); 
+        String story = ratty.getStories().get(0);
+        System.out.println("isUser(UJenn_Abrams)--> expected: true, actual: " + 
+                           ratty.isUser("UJenn_Abrams")); 
+        System.out.println("isStory(" + story + ")--> expected: true, actual: " + 
+                           ratty.isStory(story)); 
+        System.out.println("isUser(" + story + ")--> expected: false, actual: " + 
+                           ratty.isUser(story)); 
+        System.out.println("isUser(missing)--> expected: false, actual: " + 
+                           ratty.isUser("Umissing")); 
         ratty.getGraph().saveToTGF("RATgraph.tgf"); 
+
+        // the same export read as two files, the second added to a 
+        // graph that is no longer empty
+        try{
+            BufferedReader in = new BufferedReader(
+                new FileReader("All_Russian-Accounts-in-TT-stories.csv.tsv"));
+            String header = in.readLine();
+            List<String> lines = new ArrayList<String>();
+            String line;
+            while((line = in.readLine()) != null){
+                lines.add(line);
+            }
+            in.close();
+            File[] halves = {File.createTempFile("RATgraph", ".tsv"), 
+                             File.createTempFile("RATgraph", ".tsv")};
+            for(int h = 0; h < 2; h++){
+                halves[h].deleteOnExit();
+                PrintWriter out = new PrintWriter(new FileWriter(halves[h]));
+                out.println(header);
+                for(String l : lines.subList(h * lines.size() / 2, (h + 1) * lines.size() / 2)){
+                    out.println(l);
+                }
+                out.close();
+            }
+            RATgraph twice = new RATgraph(halves[0].getPath());
+            int arcsBefore = twice.getSnapshot().getNumArcs();
+            twice.readFromFile(halves[1].getPath());
+            System.out.println("two reads--> expected: true, actual: " + 
+                               twice.toString().equals(ratty.toString())); 
+            System.out.println("two reads clusters--> expected: " + ratty.getNumClusters() + 
+                               " " + ratty.getLargestClusterSize() + ", actual: " + 
+                               twice.getNumClusters() + " " + twice.getLargestClusterSize()); 
+            System.out.println("snapshot after second read--> expected: true " + 
+                               ratty.getGraph().getNumArcs() + ", actual: " + 
+                               (arcsBefore < ratty.getGraph().getNumArcs()) + " " + 
+                               twice.getSnapshot().getNumArcs()); 
+        }catch(IOException e){
+            System.out.println(e);
+        }
     }
 }
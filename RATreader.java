@@ -0,0 +1,686 @@
+import java.io.*;
+import javafoundations.IntList;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.concurrent.*;
+/**
+ * Reads TwitterTrails exports such as All_Russian-Accounts-in-TT-stories.csv.tsv
+ * with a hand-written tokenizer. The file is streamed through a FileChannel
+ * into a byte buffer, fields are split on tabs and story ids on commas
+ * without regular expressions, and numbers are parsed straight from the
+ * bytes, so the only String made per line is the screen name.
+ *
+ * Each line is handed to a Handler as one user call followed by one story
+ * call per story id. Lines that cannot be parsed are reported to the
+ * handler and skipped as a whole. Fields are never quoted: a quote is
+ * kept as part of a screen name and makes a number malformed. Ids may
+ * be as large as Long.MAX_VALUE and counts as large as Integer.MAX_VALUE;
+ * a larger value makes the line malformed instead of wrapping around.
+ *
+ * Very large exports can instead be read with readMapped, which memory
+ * maps the file, cuts it into chunks that end on line breaks and parses
+ * the chunks on several threads. Each thread collects its chunk into an
+ * edge buffer, and the buffers are handed to the handler in file order,
+ * so the handler sees exactly the same calls as with read.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class RATreader
+{
+    /**
+     * Receives the contents of an export, line by line
+     */
+    public interface Handler
+    {
+        /**
+         * Called once per line, before the line's stories
+         */
+        void user(String screenName, long userId, int tweetCount, int storyCount);
+
+        /**
+         * Called once per story id listed on the line of the last user
+         */
+        void story(long storyId);
+
+        /**
+         * Called instead of user and story for a line that is malformed
+         *
+         * @param lineNumber - line of the file, the header is line 1
+         * @param reason - what is wrong with the line
+         */
+        void malformed(long lineNumber, String reason);
+    }
+
+    // the columns every export must start with
+    public static final String HEADER =
+        "screen_name\tuser_id\ttweet_count\tstory_count\tstories_comma_separated";
+    private static final int BUFFER_SIZE = 1 << 16;
+    // largest and smallest chunk handed to one thread by readMapped
+    private static final long MAX_CHUNK = 1L << 26;
+    private static final long MIN_CHUNK = 1L << 20;
+
+    // instance variables
+    private byte[] name; // scratch space for the screen name
+    private long[] stories; // story ids of the line being parsed
+    private int numStories;
+    private String error; // why the current line failed, null if it didn't
+    private long linesRead;
+    private long bytesRead;
+    private long malformedLines;
+
+    /**
+     * Constructor for objects of class RATreader
+     */
+    public RATreader()
+    {
+        name = new byte[64];
+        stories = new long[256];
+    }
+
+    /**
+     * Streams a whole export through the handler
+     *
+     * @param inFileName - the file being read
+     * @param handler - receives every user and story
+     * @throws IOException if the file cannot be read or its header
+     *         does not match HEADER
+     */
+    public void read(String inFileName, Handler handler) throws IOException
+    {
+        FileChannel channel = FileChannel.open(Paths.get(inFileName), StandardOpenOption.READ);
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long lineNumber = 1;
+            boolean headerChecked = false;
+            boolean endOfInput = false;
+            while(!endOfInput){
+                endOfInput = channel.read(buffer) == -1;
+                buffer.flip();
+                if(!headerChecked){
+                    if(readHeader(buffer, endOfInput)){
+                        headerChecked = true;
+                        lineNumber++;
+                    }
+                }
+                if(headerChecked){
+                    lineNumber += parseLines(buffer, endOfInput, lineNumber, handler);
+                }
+                if(!endOfInput && buffer.position() == 0 && buffer.limit() == buffer.capacity()){
+                    // one line fills the whole buffer, make room for the rest of it
+                    ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                    larger.put(buffer);
+                    buffer = larger;
+                } else {
+                    buffer.compact();
+                }
+            }
+            if(!headerChecked){
+                throw new IOException(inFileName + ": empty file, expected header: " + HEADER);
+            }
+        } finally {
+            channel.close();
+        }
+        bytesRead += new File(inFileName).length();
+    }
+
+    /**
+     * Reads a whole export by memory mapping it and parsing line-aligned
+     * chunks on several threads. The handler is only called from the
+     * calling thread, in the same order as read would call it.
+     *
+     * @param inFileName - the file being read
+     * @param threads - number of threads parsing chunks, at least 1 is used
+     * @param handler - receives every user and story
+     * @throws IOException if the file cannot be read or its header
+     *         does not match HEADER
+     */
+    public void readMapped(String inFileName, int threads, Handler handler) 
+        throws IOException
+    {
+        threads = Math.max(1, threads);
+        FileChannel channel = FileChannel.open(Paths.get(inFileName), StandardOpenOption.READ);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            long size = channel.size();
+            long position = skipHeader(channel, size);
+            long chunkSize = Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, size / (4L * threads)));
+            long lineNumber = 2;
+
+            // at most two chunks per thread are parsed ahead of the one
+            // being handed to the handler, so memory use stays bounded
+            LinkedList<Future<ChunkEdges>> pending = new LinkedList<Future<ChunkEdges>>();
+            while(position < size || !pending.isEmpty()){
+                while(position < size && pending.size() < 2 * threads){
+                    long end = nextLineStart(channel, Math.min(size, position + chunkSize), size);
+                    final MappedByteBuffer chunk = 
+                        channel.map(FileChannel.MapMode.READ_ONLY, position, end - position);
+                    pending.add(pool.submit(new Callable<ChunkEdges>(){
+                            public ChunkEdges call(){
+                                ChunkEdges edges = new ChunkEdges();
+                                edges.lines = new RATreader().parseLines(chunk, true, 0, edges);
+                                return edges;
+                            }
+                        }));
+                    position = end;
+                }
+                ChunkEdges edges = waitFor(pending.removeFirst());
+                edges.replay(lineNumber, handler);
+                lineNumber += edges.lines;
+                linesRead += edges.lines;
+                malformedLines += edges.numMalformed;
+            }
+            bytesRead += size;
+        } finally {
+            pool.shutdownNow();
+            channel.close();
+        }
+    }
+
+    /**
+     * Waits for a chunk to be parsed
+     */
+    private static ChunkEdges waitFor(Future<ChunkEdges> future) throws IOException
+    {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while parsing");
+        } catch (ExecutionException ex) {
+            throw new IOException(ex.getCause());
+        }
+    }
+
+    /**
+     * Checks the header at the start of the file
+     *
+     * @return position of the first line after the header
+     */
+    private long skipHeader(FileChannel channel, long size) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, BUFFER_SIZE));
+        while(buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0){
+        }
+        buffer.flip();
+        if(!readHeader(buffer, buffer.limit() == size)){
+            throw new IOException("header line too long, expected: " + HEADER);
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Returns the position just after the first newline at or after from,
+     * or size if there is none
+     */
+    private static long nextLineStart(FileChannel channel, long from, long size) 
+        throws IOException
+    {
+        ByteBuffer window = ByteBuffer.allocate(4096);
+        while(from < size){
+            window.clear();
+            int read = channel.read(window, from);
+            if(read <= 0){
+                break;
+            }
+            for(int i = 0; i < read; i++){
+                if(window.get(i) == '\n'){
+                    return from + i + 1;
+                }
+            }
+            from += read;
+        }
+        return size;
+    }
+
+    /**
+     * The users, story ids and malformed lines of one chunk, collected by
+     * the thread that parsed it so they can be handed on in file order.
+     */
+    static class ChunkEdges implements Handler
+    {
+        int lines; // lines in the chunk
+        ArrayList<String> names = new ArrayList<String>();
+        long[] userIds = new long[64];
+        int[] tweetCounts = new int[64];
+        int[] storyCounts = new int[64];
+        IntList firstStory = new IntList(); // position in storyIds of 
+        // each user's first story, plus one entry past the last user
+        long[] storyIds = new long[1024];
+        int numStoryIds;
+        // malformed lines, with the number of users before them
+        int numMalformed;
+        long[] malformedLines = new long[4];
+        int[] malformedAfter = new int[4];
+        ArrayList<String> reasons = new ArrayList<String>();
+
+        public void user(String screenName, long userId, int tweetCount, int storyCount){
+            int u = names.size();
+            if(u == userIds.length){
+                userIds = Arrays.copyOf(userIds, u * 2);
+                tweetCounts = Arrays.copyOf(tweetCounts, u * 2);
+                storyCounts = Arrays.copyOf(storyCounts, u * 2);
+            }
+            names.add(screenName);
+            userIds[u] = userId;
+            tweetCounts[u] = tweetCount;
+            storyCounts[u] = storyCount;
+            firstStory.add(numStoryIds);
+        }
+
+        public void story(long storyId){
+            if(numStoryIds == storyIds.length){
+                storyIds = Arrays.copyOf(storyIds, numStoryIds * 2);
+            }
+            storyIds[numStoryIds++] = storyId;
+        }
+
+        public void malformed(long lineNumber, String reason){
+            if(numMalformed == malformedLines.length){
+                malformedLines = Arrays.copyOf(malformedLines, numMalformed * 2);
+                malformedAfter = Arrays.copyOf(malformedAfter, numMalformed * 2);
+            }
+            malformedLines[numMalformed] = lineNumber;
+            malformedAfter[numMalformed] = names.size();
+            reasons.add(reason);
+            numMalformed++;
+        }
+
+        /**
+         * Hands everything collected to the real handler
+         *
+         * @param firstLine - line number of the first line of the chunk
+         * @param handler - receives every user and story
+         */
+        void replay(long firstLine, Handler handler){
+            firstStory.add(numStoryIds);
+            int m = 0;
+            for(int u = 0; u < names.size(); u++){
+                while(m < numMalformed && malformedAfter[m] == u){
+                    handler.malformed(firstLine + malformedLines[m], reasons.get(m));
+                    m++;
+                }
+                handler.user(names.get(u), userIds[u], tweetCounts[u], storyCounts[u]);
+                for(int i = firstStory.get(u); i < firstStory.get(u + 1); i++){
+                    handler.story(storyIds[i]);
+                }
+            }
+            for(; m < numMalformed; m++){
+                handler.malformed(firstLine + malformedLines[m], reasons.get(m));
+            }
+        }
+    }
+
+    /**
+     * Checks the header line at the start of the buffer and moves past it
+     *
+     * @return true if the whole header line was in the buffer
+     * @throws IOException if the header does not match HEADER
+     */
+    boolean readHeader(ByteBuffer buffer, boolean endOfInput) throws IOException
+    {
+        int end = findLineEnd(buffer, buffer.position());
+        if(end == -1 && !endOfInput){
+            return false;
+        }
+        if(end == -1){
+            end = buffer.limit();
+        }
+        if(end == buffer.position() && endOfInput){
+            throw new IOException("empty file, expected header: " + HEADER);
+        }
+        int length = trimmedLength(buffer, buffer.position(), end);
+        byte[] header = new byte[length];
+        buffer.get(header);
+        String found = new String(header, StandardCharsets.UTF_8);
+        if(!found.startsWith(HEADER)){
+            throw new IOException("unexpected header: " + found +
+                                  ", expected: " + HEADER);
+        }
+        buffer.position(Math.min(end + 1, buffer.limit()));
+        return true;
+    }
+
+    /**
+     * Parses every complete line between the position and the limit of
+     * the buffer, and the unterminated last line too if endOfInput is set.
+     * The position is left at the start of the first line not parsed.
+     *
+     * @param buffer - bytes of the export, without the header
+     * @param endOfInput - true if no more bytes follow the buffer
+     * @param firstLine - line number of the first line in the buffer
+     * @param handler - receives every user and story
+     * @return the number of lines parsed
+     */
+    public int parseLines(ByteBuffer buffer, boolean endOfInput, long firstLine,
+                          Handler handler)
+    {
+        int lines = 0;
+        while(buffer.hasRemaining()){
+            int start = buffer.position();
+            int end = findLineEnd(buffer, start);
+            if(end == -1){
+                if(!endOfInput){
+                    break;
+                }
+                end = buffer.limit();
+            }
+            int length = trimmedLength(buffer, start, end);
+            if(length > 0){
+                parseLine(buffer, start, start + length, firstLine + lines, handler);
+            }
+            lines++;
+            buffer.position(Math.min(end + 1, buffer.limit()));
+        }
+        linesRead += lines;
+        return lines;
+    }
+
+    /**
+     * Returns the position of the next newline at or after from
+     *
+     * @return position of the newline, or -1 if there is none
+     */
+    private static int findLineEnd(ByteBuffer buffer, int from)
+    {
+        for(int i = from; i < buffer.limit(); i++){
+            if(buffer.get(i) == '\n'){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the length of a line without a trailing carriage return
+     */
+    private static int trimmedLength(ByteBuffer buffer, int start, int end)
+    {
+        if(end > start && buffer.get(end - 1) == '\r'){
+            end--;
+        }
+        return end - start;
+    }
+
+    /**
+     * Splits one line into its fields and hands them to the handler.
+     * Columns: screen_name, user_id, tweet_count, story_count, then the
+     * story ids separated by commas.
+     */
+    private void parseLine(ByteBuffer buffer, int start, int end, long lineNumber,
+                           Handler handler)
+    {
+        error = null;
+        int at = start;
+        int nameEnd = at;
+        while(nameEnd < end && buffer.get(nameEnd) != '\t'){
+            nameEnd++;
+        }
+        if(nameEnd == at || nameEnd == end){
+            reportMalformed(lineNumber, "missing screen_name", handler);
+            return;
+        }
+        at = nameEnd + 1;
+
+        long userId = parseNumber(buffer, at, end, "user_id", Long.MAX_VALUE);
+        at = skipField(buffer, at, end);
+        long tweetCount = parseNumber(buffer, at, end, "tweet_count", Integer.MAX_VALUE);
+        at = skipField(buffer, at, end);
+        long storyCount = parseNumber(buffer, at, end, "story_count", Integer.MAX_VALUE);
+        at = skipField(buffer, at, end);
+        if(error == null){
+            parseStories(buffer, at, end);
+        }
+        if(error != null){
+            reportMalformed(lineNumber, error, handler);
+            return;
+        }
+
+        // both counts were checked to fit in an int
+        handler.user(decodeName(buffer, start, nameEnd), userId,
+                     (int) tweetCount, (int) storyCount);
+        for(int i = 0; i < numStories; i++){
+            handler.story(stories[i]);
+        }
+    }
+
+    /**
+     * Parses the story ids between at and end, separated by commas and
+     * optional spaces, into stories
+     */
+    private void parseStories(ByteBuffer buffer, int at, int end)
+    {
+        numStories = 0;
+        while(at < end){
+            byte b = buffer.get(at);
+            if(b == ',' || b == ' ' || b == '\t'){
+                at++;
+                continue;
+            }
+            long id = 0;
+            int digits = 0;
+            while(at < end && (b = buffer.get(at)) >= '0' && b <= '9'){
+                if(id > (Long.MAX_VALUE - (b - '0')) / 10){
+                    error = "bad story id in column 5";
+                    return;
+                }
+                id = id * 10 + (b - '0');
+                digits++;
+                at++;
+            }
+            if(digits == 0 || (at < end && b != ',' && b != ' ' && b != '\t')){
+                error = "bad story id in column 5";
+                return;
+            }
+            if(numStories == stories.length){
+                stories = Arrays.copyOf(stories, numStories * 2);
+            }
+            stories[numStories++] = id;
+        }
+    }
+
+    /**
+     * Parses the decimal digits of a field that must end with a tab.
+     * On failure, including a value larger than max, sets error and
+     * returns 0.
+     */
+    private long parseNumber(ByteBuffer buffer, int at, int end, String column, long max)
+    {
+        if(error != null){
+            return 0;
+        }
+        long value = 0;
+        int digits = 0;
+        while(at < end && buffer.get(at) != '\t'){
+            byte b = buffer.get(at);
+            if(b < '0' || b > '9' || value > (max - (b - '0')) / 10){
+                error = "bad " + column;
+                return 0;
+            }
+            value = value * 10 + (b - '0');
+            digits++;
+            at++;
+        }
+        if(digits == 0){
+            error = "missing " + column;
+            return 0;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the position just after the tab that ends the field at at
+     */
+    private static int skipField(ByteBuffer buffer, int at, int end)
+    {
+        while(at < end && buffer.get(at) != '\t'){
+            at++;
+        }
+        return Math.min(at + 1, end);
+    }
+
+    /**
+     * Makes the screen name String from its UTF-8 bytes
+     */
+    private String decodeName(ByteBuffer buffer, int start, int end)
+    {
+        int length = end - start;
+        if(length > name.length){
+            name = new byte[Math.max(length, name.length * 2)];
+        }
+        for(int i = 0; i < length; i++){
+            name[i] = buffer.get(start + i);
+        }
+        return new String(name, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Counts a malformed line and passes it on to the handler
+     */
+    private void reportMalformed(long lineNumber, String reason, Handler handler)
+    {
+        malformedLines++;
+        handler.malformed(lineNumber, reason);
+    }
+
+    /**
+     * Getter for the number of lines parsed, not counting headers
+     *
+     * @return lines parsed so far
+     */
+    public long getLinesRead()
+    {
+        return linesRead;
+    }
+
+    /**
+     * Getter for the number of bytes of the files read so far
+     *
+     * @return size of the files read
+     */
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    /**
+     * Getter for the number of malformed lines that were skipped
+     *
+     * @return malformed lines so far
+     */
+    public long getMalformedLines()
+    {
+        return malformedLines;
+    }
+
+    /**
+     * Writes down every call it gets, one per line, for testing
+     */
+    static class Recorder implements Handler
+    {
+        StringBuilder calls = new StringBuilder();
+
+        public void user(String screenName, long userId, int tweetCount, int storyCount){
+            calls.append("user ").append(screenName).append(' ').append(userId).append(' ')
+                .append(tweetCount).append(' ').append(storyCount).append('\n');
+        }
+
+        public void story(long storyId){
+            calls.append("story ").append(storyId).append('\n');
+        }
+
+        public void malformed(long lineNumber, String reason){
+            calls.append("malformed ").append(lineNumber).append(' ').append(reason).append('\n');
+        }
+    }
+
+    /**
+     * Parses lines given as text, without a header, starting at line 2
+     *
+     * @return the calls made to the handler, separated by "; "
+     */
+    private static String parse(String lines)
+    {
+        Recorder recorder = new Recorder();
+        ByteBuffer buffer = ByteBuffer.wrap(lines.getBytes(StandardCharsets.UTF_8));
+        new RATreader().parseLines(buffer, true, 2, recorder);
+        return recorder.calls.toString().trim().replace("\n", "; ");
+    }
+
+    /**
+     * Main method for testing
+     */
+    public static void main(String[] args)
+    {
+        System.out.println("***TESTING parseLines***");
+        System.out.println("line--> expected: user a 1 2 1; story 10, actual: " + 
+                           parse("a\t1\t2\t1\t10\n"));
+        System.out.println("CRLF--> expected: user a 1 2 2; story 10; story 20, actual: " + 
+                           parse("a\t1\t2\t2\t10,20\r\n"));
+        System.out.println("no final newline--> expected: user a 1 2 1; story 10, actual: " + 
+                           parse("a\t1\t2\t1\t10"));
+        System.out.println("short line--> expected: malformed 2 missing tweet_count, actual: " + 
+                           parse("a\t1\n"));
+        System.out.println("no screen name--> expected: malformed 2 missing screen_name, actual: " + 
+                           parse("\t1\t2\t1\t10\n"));
+        System.out.println("quoted field--> expected: malformed 2 bad user_id, actual: " + 
+                           parse("\"a\"\t\"1\"\t2\t1\t10\n"));
+        System.out.println("quoted name--> expected: user \"a b\" 1 2 1; story 10, actual: " + 
+                           parse("\"a b\"\t1\t2\t1\t10\n"));
+        System.out.println("largest id--> expected: user a 9223372036854775807 2 1; story 9223372036854775807, actual: " + 
+                           parse("a\t9223372036854775807\t2\t1\t9223372036854775807\n"));
+        System.out.println("id overflow--> expected: malformed 2 bad user_id, actual: " + 
+                           parse("a\t9223372036854775808\t2\t1\t10\n"));
+        System.out.println("story id overflow--> expected: malformed 2 bad story id in column 5, actual: " + 
+                           parse("a\t1\t2\t1\t99999999999999999999\n"));
+        System.out.println("count overflow--> expected: malformed 2 bad tweet_count, actual: " + 
+                           parse("a\t1\t2147483648\t1\t10\n"));
+        System.out.println("largest count--> expected: user a 1 2147483647 1; story 10, actual: " + 
+                           parse("a\t1\t2147483647\t1\t10\n"));
+        System.out.println("bad line skipped--> expected: malformed 2 bad story id in column 5; user b 3 4 1; story 30, actual: " + 
+                           parse("a\t1\t2\t1\t1x\nb\t3\t4\t1\t30\n"));
+
+        System.out.println("***TESTING readMapped***");
+        try {
+            // about 100 bytes a line, so the first chunk ends inside a line
+            File file = File.createTempFile("RATreader", ".tsv");
+            file.deleteOnExit();
+            Writer out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+            out.write(HEADER + "\n");
+            for(int i = 0; i < 25000; i++){
+                String rest = (i == 10486) ? "\t" + i + "\tx\t1\t1" : 
+                    "\t" + i + "\t7\t2\t" + (i % 500) + "," + (1000000 + i);
+                String name = "user" + i;
+                while(name.length() + rest.length() < 98){
+                    name += "_";
+                }
+                out.write(name + rest + ((i % 2 == 0) ? "\r\n" : "\n"));
+            }
+            out.close();
+            RandomAccessFile bytes = new RandomAccessFile(file, "r");
+            bytes.seek(HEADER.length() + MIN_CHUNK); // last byte of the first chunk
+            System.out.println("straddles--> expected: true, actual: " + (bytes.read() != '\n'));
+            bytes.close();
+
+            Recorder streamed = new Recorder();
+            new RATreader().read(file.getPath(), streamed);
+            for(int threads : new int[] {0, -2, 1, 3}){
+                Recorder mapped = new Recorder();
+                RATreader reader = new RATreader();
+                reader.readMapped(file.getPath(), threads, mapped);
+                System.out.println(threads + " threads--> expected: true 25000 1, actual: " + 
+                                   streamed.calls.toString().equals(mapped.calls.toString()) + 
+                                   " " + reader.getLinesRead() + " " + reader.getMalformedLines());
+            }
+        } catch (IOException ex) {
+            System.out.println(ex);
+        }
+    }
+}
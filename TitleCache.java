@@ -0,0 +1,479 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Remembers story titles so each one is only fetched once, across runs as
+ * well as within one. Titles are kept in two places:
+ *
+ *   memory  the most recently used titles, up to a fixed number, evicting
+ *           the least recently used one when full
+ *   disk    a file with one "id<TAB>title" line per title ever fetched.
+ *           It is indexed when the cache is made, and a new line is
+ *           appended every time a title has to be fetched.
+ *
+ * A title that is in neither place is fetched with the function given to
+ * the constructor, so a cache made from a seeded file and a function that
+ * fails can be used to test without going to the network. A story the
+ * source has no title for is remembered in memory, and is not fetched
+ * again by the same cache.
+ *
+ * The cache does not print anything. If the file cannot be read or
+ * written, the cache carries on in memory and getLastError tells why.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class TitleCache
+{
+    private final int DEFAULT_CAPACITY = 1024;
+    private String fileName;
+    private Function<String, String> fetcher; // returns null if a title can't be found
+    private LinkedHashMap<String, String> recent; // in order of last use
+    private HashMap<String, Long> offsets; // where each stored title's line starts
+    private HashSet<String> failed; // stories whose titles could not be fetched
+    private IOException lastError; // last problem with the file, null if none
+    private long fileLength;
+    private boolean unterminated; // true if the file does not end in a newline
+    private int memoryHits, diskHits, misses;
+
+    /**
+     * Constructor
+     * Creates a cache backed by a file, holding the default number of
+     * titles in memory.
+     *
+     * @param fileName - the file titles are stored in, made if missing
+     * @param fetcher - looks up a title that is not cached, returning null
+     *                  if it cannot
+     */
+    public TitleCache(String fileName, Function<String, String> fetcher){
+        this(fileName, fetcher, 0);
+    }
+
+    /**
+     * Constructor
+     * Creates a cache backed by a file, holding up to capacity titles in
+     * memory.
+     *
+     * @param fileName - the file titles are stored in, made if missing
+     * @param fetcher - looks up a title that is not cached, returning null
+     *                  if it cannot
+     * @param capacity - number of titles kept in memory, the default if 0
+     */
+    public TitleCache(String fileName, Function<String, String> fetcher, int capacity){
+        this.fileName = fileName;
+        this.fetcher = fetcher;
+        final int limit = (capacity > 0) ? capacity : DEFAULT_CAPACITY;
+        recent = new LinkedHashMap<String, String>(16, 0.75f, true){
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest){
+                return size() > limit;
+            }
+        };
+        offsets = new HashMap<String, Long>();
+        failed = new HashSet<String>();
+        index();
+    }
+
+    /**
+     * Reads the file once, noting where the line of each title starts.
+     * The titles themselves are only read when they are asked for.
+     */
+    private void index(){
+        File file = new File(fileName);
+        if(!file.exists()){
+            return;
+        }
+        try{
+            InputStream in = new BufferedInputStream(new FileInputStream(file));
+            try{
+                ByteArrayOutputStream id = new ByteArrayOutputStream();
+                long position = 0, lineStart = 0;
+                boolean inId = true;
+                int b;
+                while((b = in.read()) != -1){
+                    position++;
+                    if(b == '\n'){
+                        inId = true;
+                        id.reset();
+                        lineStart = position;
+                    } else if(inId && b == '\t'){
+                        inId = false;
+                        // a later line for the same id replaces an earlier one
+                        offsets.put(id.toString("UTF-8"), lineStart);
+                    } else if(inId){
+                        id.write(b);
+                    }
+                }
+                fileLength = position;
+                unterminated = position > lineStart;
+            } finally {
+                in.close();
+            }
+        } catch (IOException ex) {
+            lastError = ex;
+        }
+    }
+
+    /**
+     * Returns the title of a story, from memory, then the file, and
+     * fetching it only if it is in neither
+     *
+     * @param storyCode - id of the story
+     * @return the title, or "" if it is not cached and cannot be fetched
+     */
+    public String get(String storyCode){
+        String title = lookup(storyCode);
+        if(title != null){
+            return title;
+        }
+        // fetched without holding the lock, so other lookups can go on
+        title = fetcher.apply(storyCode);
+        if(title == null){
+            markFailed(storyCode);
+            return "";
+        }
+        put(storyCode, title);
+        return title;
+    }
+
+    /**
+     * Returns the titles of several stories. The ones that are not cached
+     * are fetched at the same time by the resolver and added to the cache,
+     * and any the source has no title for are remembered as failed. One
+     * that times out or fails is not remembered, so it is fetched again
+     * next time, unless its lookup finishes late and is kept then.
+     *
+     * @param storyCodes - ids of the stories
+     * @param resolver - fetches the titles that are not cached
+     * @return title of each story, "" for any that cannot be found
+     */
+    public Map<String, String> getAll(Collection<String> storyCodes, 
+                                      TitleResolver resolver){
+        Map<String, String> titles = new HashMap<String, String>();
+        List<String> missing = new ArrayList<String>();
+        for(String storyCode : storyCodes){
+            String title = lookup(storyCode);
+            if(title != null){
+                titles.put(storyCode, title);
+            } else {
+                missing.add(storyCode);
+            }
+        }
+        if(missing.isEmpty()){
+            return titles;
+        }
+        // fetched without holding the lock, as in get
+        Map<String, CompletableFuture<String>> lookups = resolver.resolveEach(missing);
+        Map<String, String> answered = resolver.awaitAll(lookups);
+        for(final String storyCode : missing){
+            if(answered.containsKey(storyCode)){
+                String title = answered.get(storyCode);
+                remember(storyCode, title);
+                titles.put(storyCode, (title == null) ? "" : title);
+            } else {
+                // timed out or failed: not remembered, so it is asked for
+                // again, but a lookup that is still going is kept when done
+                lookups.get(storyCode).thenAccept(title -> remember(storyCode, title));
+                titles.put(storyCode, "");
+            }
+        }
+        return titles;
+    }
+
+    /**
+     * Keeps the answer of a title source: the title, or that there is none
+     */
+    private void remember(String storyCode, String title){
+        if(title != null){
+            put(storyCode, title);
+        } else {
+            markFailed(storyCode);
+        }
+    }
+
+    /**
+     * Returns the title of a story if it is in memory or in the file,
+     * without fetching it
+     *
+     * @param storyCode - id of the story
+     * @return the title, "" if it is known not to be found, or null if it
+     *         is not cached
+     */
+    public synchronized String lookup(String storyCode){
+        String title = recent.get(storyCode);
+        if(title == null && failed.contains(storyCode)){
+            title = "";
+        }
+        if(title != null){
+            memoryHits++;
+            return title;
+        }
+        Long offset = offsets.get(storyCode);
+        if(offset != null){
+            title = readLine(offset);
+            if(title != null){
+                diskHits++;
+                recent.put(storyCode, title);
+                return title;
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Adds a title that was fetched elsewhere, to memory and to the file
+     *
+     * @param storyCode - id of the story
+     * @param title - its title
+     */
+    public synchronized void put(String storyCode, String title){
+        failed.remove(storyCode);
+        recent.put(storyCode, title);
+        append(storyCode, title);
+    }
+
+    /**
+     * Remembers, until the cache is thrown away, that the title of a
+     * story could not be fetched, so lookup and get return "" for it
+     * instead of fetching it again
+     *
+     * @param storyCode - id of the story
+     */
+    public synchronized void markFailed(String storyCode){
+        if(!recent.containsKey(storyCode) && !offsets.containsKey(storyCode)){
+            failed.add(storyCode);
+        }
+    }
+    /**
+     * Reads the title on the line starting at offset
+     *
+     * @return the title, or null if the line cannot be read
+     */
+    private String readLine(long offset){
+        try{
+            RandomAccessFile file = new RandomAccessFile(fileName, "r");
+            try{
+                file.seek(offset);
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                int b;
+                while((b = file.read()) != -1 && b != '\n'){
+                    line.write(b);
+                }
+                String text = line.toString("UTF-8");
+                return unescape(text.substring(text.indexOf('\t') + 1));
+            } finally {
+                file.close();
+            }
+        } catch (IOException ex) {
+            lastError = ex;
+            return null;
+        }
+    }
+
+    /**
+     * Adds a line for a newly fetched title to the end of the file
+     */
+    private void append(String storyCode, String title){
+        String separator = unterminated ? "\n" : "";
+        byte[] line = (separator + storyCode + "\t" + escape(title) + "\n")
+            .getBytes(StandardCharsets.UTF_8);
+        try{
+            OutputStream out = new FileOutputStream(fileName, true);
+            try{
+                out.write(line);
+            } finally {
+                out.close();
+            }
+            offsets.put(storyCode, fileLength + separator.length());
+            fileLength += line.length;
+            unterminated = false;
+        } catch (IOException ex) {
+            lastError = ex;
+        }
+    }
+
+    /**
+     * Escapes the characters that separate ids, titles and lines
+     */
+    private static String escape(String title){
+        return title.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n")
+            .replace("\r", "\\r");
+    }
+
+    /**
+     * Undoes escape, for anything else that reads the file
+     */
+    static String unescape(String text){
+        StringBuilder title = new StringBuilder(text.length());
+        for(int i = 0; i < text.length(); i++){
+            char c = text.charAt(i);
+            if(c == '\\' && i + 1 < text.length()){
+                char next = text.charAt(++i);
+                c = (next == 't') ? '\t' : (next == 'n') ? '\n' : (next == 'r') ? '\r' : next;
+            }
+            title.append(c);
+        }
+        return title.toString();
+    }
+
+    /**
+     * Getter for the number of titles found in memory
+     */
+    public synchronized int getMemoryHits(){
+        return memoryHits;
+    }
+
+    /**
+     * Getter for the number of titles read back from the file
+     */
+    public synchronized int getDiskHits(){
+        return diskHits;
+    }
+
+    /**
+     * Getter for the number of titles that were not cached
+     */
+    public synchronized int getMisses(){
+        return misses;
+    }
+
+    /**
+     * Getter for the number of stories whose titles could not be fetched
+     */
+    public synchronized int getNumFailed(){
+        return failed.size();
+    }
+
+    /**
+     * Getter for the last error reading or writing the file
+     *
+     * @return the exception, or null if there has been none
+     */
+    public synchronized IOException getLastError(){
+        return lastError;
+    }
+
+    /**
+     * Getter for the number of titles stored in the file
+     */
+    public synchronized int getNumStored(){
+        return offsets.size();
+    }
+
+    /**
+     * Returns the hit and miss counts
+     *
+     * @return "memory hits: a, disk hits: b, misses: c"
+     */
+    public synchronized String toString(){
+        return "memory hits: " + memoryHits + ", disk hits: " + diskHits +
+            ", misses: " + misses;
+    }
+
+    /**
+     * Main method for testing
+     */
+    public static void main(String[] args){
+        System.out.println("***TESTING TitleCache***");
+        File file = new File("TitleCache test.tsv");
+        file.delete();
+        final int[] fetched = {0};
+        Function<String, String> fake = new Function<String, String>(){
+            public String apply(String storyCode){
+                fetched[0]++;
+                return storyCode.equals("0") ? null : "Title\tof " + storyCode;
+            }
+        };
+
+        TitleCache cache = new TitleCache(file.getPath(), fake, 2);
+        System.out.println("get 1--> expected: Title\tof 1, actual: " + cache.get("1"));
+        cache.get("2");
+        cache.get("1");
+        cache.get("3"); // evicts 2, the least recently used
+        System.out.println("get 2--> expected: Title\tof 2, actual: " + cache.get("2"));
+        System.out.println("get 0--> expected: , actual: " + cache.get("0"));
+        System.out.println("get 0 again--> expected: , actual: " + cache.get("0"));
+        System.out.println("counts--> expected: memory hits: 2, disk hits: 1, misses: 4, actual: " + cache);
+        System.out.println("fetched--> expected: 4, actual: " + fetched[0]);
+        System.out.println("failed--> expected: 1, actual: " + cache.getNumFailed());
+        System.out.println("error--> expected: null, actual: " + cache.getLastError());
+
+        TitleCache reopened = new TitleCache(file.getPath(), fake, 2);
+        System.out.println("stored--> expected: 3, actual: " + reopened.getNumStored());
+        System.out.println("get 3--> expected: Title\tof 3, actual: " + reopened.get("3"));
+        System.out.println("fetched after reopening--> expected: 4, actual: " + fetched[0]);
+        try{
+            FileTitleSource source = new FileTitleSource(file.getPath());
+            System.out.println("read as a source--> expected: Title\tof 3, actual: " + 
+                               source.fetchTitle("3"));
+        } catch (IOException ex) {
+            System.out.println(ex);
+        }
+
+        // a hand-written seed file whose last line has no newline
+        try{
+            Writer seed = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+            seed.write("4\tSeeded title\n5\tLast title");
+            seed.close();
+        } catch (IOException ex) {
+            System.out.println(ex);
+        }
+        TitleCache seeded = new TitleCache(file.getPath(), fake, 2);
+        System.out.println("seeded 5--> expected: Last title, actual: " + seeded.get("5"));
+        seeded.get("6");
+        TitleCache reseeded = new TitleCache(file.getPath(), fake, 2);
+        System.out.println("appended 6--> expected: Title\tof 6, actual: " + reseeded.get("6"));
+        System.out.println("seeded 4--> expected: Seeded title, actual: " + reseeded.get("4"));
+        System.out.println("seeded counts--> expected: memory hits: 0, disk hits: 2, misses: 0, actual: " + reseeded);
+        file.delete();
+
+        // a file in a missing directory cannot be written, but titles
+        // are still kept in memory
+        TitleCache unwritable = new TitleCache("no such directory/titles.tsv", fake, 2);
+        System.out.println("unwritable get 7--> expected: Title\tof 7, actual: " + unwritable.get("7"));
+        System.out.println("unwritable again--> expected: Title\tof 7, actual: " + unwritable.get("7"));
+        System.out.println("unwritable error--> expected: FileNotFoundException, actual: " + 
+                           unwritable.getLastError().getClass().getSimpleName());
+
+        // a lookup that times out is not remembered as failed, and is kept
+        // when it finishes late
+        final int[] slowFetched = {0};
+        TitleSource slow = new TitleSource(){
+            public String fetchTitle(String storyCode) throws IOException {
+                slowFetched[0]++;
+                try{
+                    Thread.sleep(storyCode.equals("8") ? 300 : 0);
+                } catch (InterruptedException ex) {
+                    throw new InterruptedIOException();
+                }
+                return storyCode.equals("0") ? null : "Title of " + storyCode;
+            }
+        };
+        TitleResolver resolver = new TitleResolver(slow, 2, 100);
+        TitleCache lazy = new TitleCache("no such directory/titles.tsv", fake, 4);
+        Map<String, String> first = lazy.getAll(Arrays.asList("8", "0"), resolver);
+        System.out.println("timed out 8--> expected: , actual: " + first.get("8"));
+        System.out.println("no title 0--> expected: , actual: " + first.get("0"));
+        System.out.println("failed after timeout--> expected: 1, actual: " + lazy.getNumFailed());
+        try{
+            Thread.sleep(500);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        Map<String, String> second = lazy.getAll(Arrays.asList("8", "0"), resolver);
+        System.out.println("late 8--> expected: Title of 8, actual: " + second.get("8"));
+        System.out.println("no title 0 again--> expected: , actual: " + second.get("0"));
+        System.out.println("slow fetched--> expected: 2, actual: " + slowFetched[0]);
+        resolver.shutdown();
+    }
+}
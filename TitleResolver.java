@@ -0,0 +1,305 @@
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Looks up the titles of many stories at once. Each lookup runs on its
+ * own thread, but no more than a fixed number reach the source at the
+ * same time, and a batch stops waiting after a timeout. A story that is
+ * already being looked up is not asked for again: everyone who wants it
+ * shares the one lookup.
+ *
+ * Lookups run on virtual threads when the Java running this has them, and
+ * on a fixed pool of as many threads as lookups allowed at once when it
+ * does not.
+ *
+ * The resolver does not print anything. Failed lookups are counted, and
+ * getLastError tells why the last one failed.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class TitleResolver
+{
+    private TitleSource source;
+    private Semaphore permits; // one per lookup allowed at once
+    private long timeoutMillis;
+    private ExecutorService pool;
+    private boolean virtual; // true if lookups run on virtual threads
+    private ConcurrentHashMap<String, CompletableFuture<String>> pending;
+    private AtomicInteger fetched, coalesced, failed, timedOut;
+    private volatile Exception lastError; // why the last lookup failed
+
+    /**
+     * Constructor
+     *
+     * @param source - where titles are looked up
+     * @param maxConcurrent - most lookups allowed at the same time
+     * @param timeoutMillis - how long resolveAll waits for a batch
+     */
+    public TitleResolver(TitleSource source, int maxConcurrent, long timeoutMillis){
+        this.source = source;
+        this.timeoutMillis = timeoutMillis;
+        maxConcurrent = Math.max(1, maxConcurrent);
+        permits = new Semaphore(maxConcurrent);
+        pending = new ConcurrentHashMap<String, CompletableFuture<String>>();
+        fetched = new AtomicInteger();
+        coalesced = new AtomicInteger();
+        failed = new AtomicInteger();
+        timedOut = new AtomicInteger();
+        try{
+            Method perTask = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            pool = (ExecutorService) perTask.invoke(null);
+            virtual = true;
+        } catch (ReflectiveOperationException ex) {
+            pool = Executors.newFixedThreadPool(maxConcurrent, new ThreadFactory(){
+                    public Thread newThread(Runnable task){
+                        Thread thread = new Thread(task, "title lookup");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            virtual = false;
+        }
+    }
+
+    /**
+     * Starts looking up the title of a story, or joins the lookup already
+     * under way for it
+     *
+     * @param storyCode - id of the story
+     * @return the title once it is found, null if the source has none
+     */
+    public CompletableFuture<String> resolve(final String storyCode){
+        final CompletableFuture<String> title = new CompletableFuture<String>();
+        CompletableFuture<String> existing = pending.putIfAbsent(storyCode, title);
+        if(existing != null){
+            coalesced.incrementAndGet();
+            return existing;
+        }
+        try{
+            pool.execute(new Runnable(){
+                    public void run(){
+                        lookUp(storyCode, title);
+                    }
+                });
+        } catch (RejectedExecutionException ex) {
+            pending.remove(storyCode, title);
+            failed.incrementAndGet();
+            lastError = ex;
+            title.completeExceptionally(ex);
+        }
+        return title;
+    }
+
+    /**
+     * Looks up one title once a permit is free
+     */
+    private void lookUp(String storyCode, CompletableFuture<String> title){
+        try{
+            permits.acquire();
+            try{
+                fetched.incrementAndGet();
+                title.complete(source.fetchTitle(storyCode));
+            } finally {
+                permits.release();
+            }
+        } catch (IOException | RuntimeException ex) {
+            failed.incrementAndGet();
+            lastError = ex;
+            title.completeExceptionally(ex);
+        } catch (InterruptedException ex) {
+            title.completeExceptionally(ex);
+            Thread.currentThread().interrupt();
+        } finally {
+            pending.remove(storyCode, title);
+        }
+    }
+
+    /**
+     * Looks up the titles of a batch of stories and waits for them, up to
+     * the timeout for the whole batch
+     *
+     * @param storyCodes - ids of the stories, which may repeat
+     * @return the title of every story that was found in time, in the
+     *         order the ids were first given
+     */
+    public Map<String, String> resolveAll(Collection<String> storyCodes){
+        Map<String, String> answered = awaitAll(resolveEach(storyCodes));
+        answered.values().removeIf(title -> title == null);
+        return answered;
+    }
+
+    /**
+     * Starts looking up the titles of a batch of stories without waiting
+     * for them
+     *
+     * @param storyCodes - ids of the stories, which may repeat
+     * @return the lookup of every story, in the order the ids were first
+     *         given
+     */
+    public Map<String, CompletableFuture<String>> resolveEach(Collection<String> storyCodes){
+        LinkedHashMap<String, CompletableFuture<String>> lookups = 
+            new LinkedHashMap<String, CompletableFuture<String>>();
+        for(String storyCode : storyCodes){
+            if(!lookups.containsKey(storyCode)){
+                lookups.put(storyCode, resolve(storyCode));
+            }
+        }
+        return lookups;
+    }
+
+    /**
+     * Waits for lookups started by resolve or resolveEach, up to the 
+     * timeout for all of them together. A lookup that fails or is still 
+     * going when the time is up is left out, so it can be told apart from 
+     * a story the source has no title for.
+     *
+     * @param lookups - lookup of each story
+     * @return the answer of the source for every lookup that finished in
+     *         time: the title, or null if the source has none
+     */
+    public Map<String, String> awaitAll(Map<String, CompletableFuture<String>> lookups){
+        LinkedHashMap<String, String> titles = new LinkedHashMap<String, String>();
+        long deadline = System.nanoTime() + timeoutMillis * 1000000L;
+        for(Map.Entry<String, CompletableFuture<String>> lookup : lookups.entrySet()){
+            try{
+                long left = Math.max(0, deadline - System.nanoTime());
+                titles.put(lookup.getKey(), 
+                           lookup.getValue().get(left, TimeUnit.NANOSECONDS));
+            } catch (TimeoutException ex) {
+                timedOut.incrementAndGet();
+            } catch (ExecutionException ex) {
+                // already counted, and kept in lastError, where it failed
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return titles;
+    }
+
+    /**
+     * Returns true if lookups run on virtual threads
+     */
+    public boolean isVirtual(){
+        return virtual;
+    }
+
+    /**
+     * Getter for the number of lookups sent to the source
+     */
+    public int getNumFetched(){
+        return fetched.get();
+    }
+
+    /**
+     * Getter for the number of requests that joined a lookup under way
+     */
+    public int getNumCoalesced(){
+        return coalesced.get();
+    }
+
+    /**
+     * Getter for the number of lookups that failed
+     */
+    public int getNumFailed(){
+        return failed.get();
+    }
+
+    /**
+     * Getter for why the last lookup failed
+     *
+     * @return the exception, or null if no lookup has failed
+     */
+    public Exception getLastError(){
+        return lastError;
+    }
+
+    /**
+     * Getter for the number of titles resolveAll stopped waiting for
+     */
+    public int getNumTimedOut(){
+        return timedOut.get();
+    }
+
+    /**
+     * Returns the lookup counts
+     *
+     * @return "fetched: a, coalesced: b, failed: c, timed out: d"
+     */
+    public String toString(){
+        return "fetched: " + fetched + ", coalesced: " + coalesced + ", failed: " +
+            failed + ", timed out: " + timedOut;
+    }
+
+    /**
+     * Stops taking lookups. Lookups already started are left to finish.
+     */
+    public void shutdown(){
+        pool.shutdown();
+    }
+
+    /**
+     * Main method for testing
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("***TESTING TitleResolver***");
+        java.util.HashMap<String, String> titles = new java.util.HashMap<String, String>();
+        for(int i = 0; i < 40; i++){
+            titles.put("" + i, "Title " + i);
+        }
+        LocalTitleServer server = new LocalTitleServer(new FileTitleSource(titles, 50));
+        TitleSource http = new HttpTitleSource(server.getBaseUrl(), 2000);
+        System.out.println("http 7--> expected: Title 7, actual: " + http.fetchTitle("7"));
+
+        TitleResolver resolver = new TitleResolver(http, 8, 5000);
+        java.util.List<String> batch = new java.util.ArrayList<String>();
+        for(int i = 0; i < 40; i++){
+            batch.add("" + i);
+            batch.add("" + (i % 5)); // repeats
+        }
+        batch.add("missing");
+        long start = System.nanoTime();
+        Map<String, String> resolved = resolver.resolveAll(batch);
+        long millis = (System.nanoTime() - start) / 1000000;
+        System.out.println("resolved--> expected: 40, actual: " + resolved.size());
+        System.out.println("first--> expected: 0=Title 0, actual: " + 
+                           resolved.entrySet().iterator().next());
+        System.out.println("fetched--> expected: 41, actual: " + resolver.getNumFetched());
+        System.out.println("failed--> expected: 0, actual: " + resolver.getNumFailed());
+        System.out.println("faster than one at a time--> expected: true, actual: " + 
+                           (millis < 41 * 50));
+
+        CompletableFuture<String> a = resolver.resolve("39");
+        CompletableFuture<String> b = resolver.resolve("39");
+        System.out.println("coalesced--> expected: true, actual: " + (a == b));
+        resolver.shutdown();
+
+        TitleResolver slow = new TitleResolver(new FileTitleSource(titles, 2000), 2, 100);
+        System.out.println("timed out--> expected: {}, actual: " + 
+                           slow.resolveAll(batch.subList(0, 3)));
+        System.out.println("timeouts--> expected: 2, actual: " + slow.getNumTimedOut());
+        slow.shutdown();
+
+        TitleResolver down = new TitleResolver(new TitleSource(){
+                public String fetchTitle(String storyCode) throws IOException {
+                    throw new IOException("source is down");
+                }
+            }, 2, 1000);
+        System.out.println("failing--> expected: {}, actual: " + 
+                           down.resolveAll(batch.subList(0, 3)));
+        System.out.println("failures--> expected: 2, actual: " + down.getNumFailed());
+        System.out.println("last error--> expected: source is down, actual: " + 
+                           down.getLastError().getMessage());
+        down.shutdown();
+        down.resolve("after shutdown");
+        System.out.println("rejected--> expected: RejectedExecutionException, actual: " + 
+                           down.getLastError().getClass().getSimpleName());
+        server.stop();
+    }
+}
@@ -0,0 +1,20 @@
+import java.io.IOException;
+
+/**
+ * Somewhere the title of a story can be looked up, given its id.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public interface TitleSource
+{
+    /**
+     * Looks up the title of a story. May be called from several threads
+     * at once.
+     *
+     * @param storyCode - id of the story
+     * @return the title, or null if the source has no title for the story
+     * @throws IOException if the source cannot be reached
+     */
+    public String fetchTitle(String storyCode) throws IOException;
+}
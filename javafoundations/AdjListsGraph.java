@@ -14,15 +14,182 @@ public class AdjListsGraph<T> implements Graph<T>
 {
     // instance variables
     private Vector<T> vertices; 
-    private Vector<LinkedList<T>> arcs; // each linked list will 
-    // hold the set of adjacent vertices to a certain vertex
+    private Vector<IntList> arcs; // each list will hold the indices 
+    // of the set of adjacent vertices to a certain vertex
+    private HashMap<T, Integer> indices; // position of each vertex in
+    // vertices (and of its list in arcs), kept in sync with both vectors
+    private ConnectedComponents<T> components; // labeling of the current 
+    // graph, null until asked for and again after every change
+    private DisjointSet connectivity; // merged as arcs are added, so the 
+    // number of components is always known; null after a removal until 
+    // it is rebuilt
+    private Vector<IntList> reverse; // indices of the predecessors of each 
+    // vertex, or null if the graph was made without them
+    private DegreeIndex outDegrees; // number of successors of each vertex
+    private DegreeIndex inDegrees; // number of predecessors of each vertex
+    private int numArcs;
+    private int modCount; // bumped by every change to vertices or arcs
+    private LongHashSet arcSet; // every arc packed as (origin, destination), 
+    // so an arc can be looked up without searching a list
 
     /** 
      * Constructor 
      */ 
     public AdjListsGraph(){
+        this(false);
+    }
+
+    /** 
+     * Constructor that can also keep the predecessors of every vertex. 
+     * Doing so doubles the memory for arcs, but getPredecessors becomes a 
+     * direct lookup and removeVertex only has to touch the arcs of the 
+     * vertex removed and of the last vertex.
+     * 
+     * @param trackPredecessors - true to keep reverse adjacency lists
+     */ 
+    public AdjListsGraph(boolean trackPredecessors){
+        reverse = trackPredecessors ? new Vector<IntList>() : null;
         vertices = new Vector<T>();
-        arcs = new Vector<LinkedList<T>>();
+        arcs = new Vector<IntList>();
+        indices = new HashMap<T, Integer>();
+        connectivity = new DisjointSet();
+        outDegrees = new DegreeIndex();
+        inDegrees = new DegreeIndex();
+        numArcs = 0;
+        arcSet = new LongHashSet();
+    }
+
+    /** 
+     * Constructor used by GraphBuilder, which hands over adjacency lists 
+     * that are already free of duplicates, and a disjoint set already 
+     * merged over their arcs. The degrees and the arc set are counted 
+     * here in one pass.
+     */ 
+    AdjListsGraph(Vector<T> vertices, HashMap<T, Integer> indices, 
+                  Vector<IntList> arcs, DisjointSet connectivity){
+        this.vertices = vertices;
+        this.indices = indices;
+        this.arcs = arcs;
+        this.connectivity = connectivity;
+        reverse = null;
+        outDegrees = new DegreeIndex();
+        inDegrees = new DegreeIndex();
+        int total = 0;
+        for(int i = 0; i < arcs.size(); i++){
+            total += arcs.get(i).size();
+        }
+        arcSet = new LongHashSet(total);
+        rebuildCounts();
+    }
+
+    /** 
+     * Looks up the position of a vertex in the vertices vector
+     * 
+     * @param vertex - the vertex to look up
+     * @return index of the vertex, or -1 if it is not in the graph
+     */
+    public int getIndex(T vertex){
+        Integer index = indices.get(vertex);
+        return (index == null) ? -1 : index;
+    }
+
+    /** 
+     * Getter for the vertex at a position of the vertices vector
+     * 
+     * @param index - position of the vertex
+     * @return the vertex
+     */
+    public T getVertex(int index){
+        return vertices.get(index);
+    }
+
+    /** 
+     * Getter for the number of successors of a vertex
+     * 
+     * @param index - position of the vertex
+     * @return number of arcs leaving the vertex
+     */
+    public int getNumSuccessors(int index){
+        return arcs.get(index).size();
+    }
+
+    /** 
+     * Returns true if this graph keeps the predecessors of every vertex
+     * 
+     * @return true if it was made with trackPredecessors
+     */
+    public boolean isTrackingPredecessors(){
+        return reverse != null;
+    }
+
+    /** 
+     * Getter for one predecessor of a vertex, without allocating. Only 
+     * available if this graph keeps predecessors; the number of them is 
+     * getInDegree(index).
+     * 
+     * @param index - position of the vertex
+     * @param i - which predecessor, from 0 to getInDegree(index) - 1
+     * @return position of the i-th predecessor
+     * @throws IllegalStateException if predecessors are not tracked
+     */
+    public int getPredecessor(int index, int i){
+        if(reverse == null){
+            throw new IllegalStateException("predecessors are not tracked");
+        }
+        return reverse.get(index).get(i);
+    }
+
+    /** 
+     * Getter for the number of arcs leaving a vertex, kept as arcs are 
+     * added and removed
+     * 
+     * @param index - position of the vertex
+     * @return out-degree of the vertex
+     */
+    public int getOutDegree(int index){
+        return outDegrees.getDegree(index);
+    }
+
+    /** 
+     * Getter for the number of arcs entering a vertex, kept as arcs are 
+     * added and removed
+     * 
+     * @param index - position of the vertex
+     * @return in-degree of the vertex
+     */
+    public int getInDegree(int index){
+        return inDegrees.getDegree(index);
+    }
+
+    /** 
+     * Getter for the out-degree of every vertex, bucketed by degree, for 
+     * finding the vertices with the most successors and the histogram of 
+     * out-degrees without looking at every vertex
+     * 
+     * @return read-only index of out-degrees by vertex position
+     */
+    public DegreeIndex getOutDegrees(){
+        return outDegrees;
+    }
+
+    /** 
+     * Getter for the in-degree of every vertex, bucketed by degree
+     * 
+     * @return read-only index of in-degrees by vertex position
+     */
+    public DegreeIndex getInDegrees(){
+        return inDegrees;
+    }
+
+    /** 
+     * Getter for one successor of a vertex, without allocating
+     * 
+     * @param index - position of the vertex
+     * @param i - which successor, from 0 to getNumSuccessors(index) - 1
+     * @return position of the i-th successor
+     */
+    public int getSuccessor(int index, int i){
+        return arcs.get(index).get(i);
     }
 
     /** 
@@ -31,32 +198,33 @@ public class AdjListsGraph<T> implements Graph<T>
      * @param startVertex - vertex that the BFS will begin on 
      * */
     public LinkedList<T> BFS(T startVertex){
-        CircularArrayQueue<T> q = new CircularArrayQueue<T>();
+        CircularArrayQueue<Integer> q = new CircularArrayQueue<Integer>();
         LinkedList<T> iter = new LinkedList<T>();
-        Vector<T> visitedVerts =  new Vector<T>();
+        // visited[i] is true once vertices.get(i) has been queued
+        boolean[] visited = new boolean[vertices.size()];
         
         // early return if the start vertex doesn't exist
-        if(! vertices.contains(startVertex)){
+        int start = getIndex(startVertex);
+        if(start == -1){
             return iter;
         }
         
-        visitedVerts.add(startVertex);
-        q.enqueue(startVertex); //added the starting vertex to queue
+        visited[start] = true;
+        q.enqueue(start); //added the starting vertex to queue
         while(! q.isEmpty()){
-            T current = q.first(); 
-            LinkedList<T> successors = getSuccessors(current); // get the 
+            int current = q.dequeue(); 
+            IntList successors = arcs.get(current); // get the 
             // successors of the vertex at front and add them to queue
             for(int i = 0; i < successors.size(); i++){
-                T currentSuccessor = successors.get(i);
-                if(!visitedVerts.contains(currentSuccessor)){
+                int currentSuccessor = successors.get(i);
+                if(!visited[currentSuccessor]){
                     q.enqueue(currentSuccessor);
-                    visitedVerts.add(currentSuccessor);
+                    visited[currentSuccessor] = true;
                 }
             }
             // once each successor has been added, the vertex is marked as
-            // visited (added to iterator) and is dequeueued
-            iter.add(current);
-            q.dequeue();
+            // visited (added to iterator)
+            iter.add(vertices.get(current));
         }
         return iter;
     }
@@ -66,33 +234,35 @@ public class AdjListsGraph<T> implements Graph<T>
      * @param startVertex - vertex that the BFS will begin on 
      * */
     public LinkedList<T> BFSFind(T origin, T destination){
-        CircularArrayQueue<T> q = new CircularArrayQueue<T>();
+        CircularArrayQueue<Integer> q = new CircularArrayQueue<Integer>();
         LinkedList<T> iter = new LinkedList<T>();
-        Vector<T> visitedVerts =  new Vector<T>();
+        boolean[] visited = new boolean[vertices.size()];
         
         // early return if the start vertex doesn't exist or if origin vertex is same as ddestination
-        if(! vertices.contains(origin) || origin.equals(destination)){
+        int start = getIndex(origin);
+        if(start == -1 || origin.equals(destination)){
             return iter;
         }
         
-        visitedVerts.add(origin);
-        q.enqueue(origin); //added the starting vertex to queue
-        //stops searching if the destination vertex has been found
-        while(! q.isEmpty() && !iter.contains(destination)){
-            T current = q.first(); 
-            LinkedList<T> successors = getSuccessors(current); // get the 
+        int end = getIndex(destination);
+        visited[start] = true;
+        q.enqueue(start); //added the starting vertex to queue
+        while(! q.isEmpty()){
+            int current = q.dequeue(); 
+            iter.add(vertices.get(current));
+            //stops searching as soon as the destination vertex is dequeued
+            if(current == end){
+                return iter;
+            }
+            IntList successors = arcs.get(current); // get the 
             // successors of the vertex at front and add them to queue
             for(int i = 0; i < successors.size(); i++){
-                T currentSuccessor = successors.get(i);
-                if(!visitedVerts.contains(currentSuccessor)){
+                int currentSuccessor = successors.get(i);
+                if(!visited[currentSuccessor]){
                     q.enqueue(currentSuccessor);
-                    visitedVerts.add(currentSuccessor);
+                    visited[currentSuccessor] = true;
                 }
             }
-            // once each successor has been added, the vertex is marked as
-            // visited (added to iterator) and is dequeueued
-            iter.add(current);
-            q.dequeue();
         }
         return iter;
     }
@@ -104,33 +274,37 @@ public class AdjListsGraph<T> implements Graph<T>
      * @param startVertex
      * */
     public LinkedList<T> DFS(T startVertex){
-        T currentVertex;
-        ArrayStack<T> traversalStack = new ArrayStack<T>();
+        int currentVertex;
+        ArrayStack<Integer> traversalStack = new ArrayStack<Integer>();
         LinkedList<T> iter = new LinkedList<T>();
-        Vector<T> visitedVerts =  new Vector<T>();
+        boolean[] visited = new boolean[vertices.size()];
+        // next[v] is how many successors of v have already been tried, so
+        // the search resumes there instead of rescanning the whole list
+        int[] next = new int[vertices.size()];
         boolean foundASuccessor;
         
         // early return if the start vertex doesn't exist
-        if(! vertices.contains(startVertex)){
+        int start = getIndex(startVertex);
+        if(start == -1){
             return iter;
         }
 
-        traversalStack.push(startVertex); 
+        traversalStack.push(start); 
         iter.add(startVertex);
-        visitedVerts.add(startVertex); // mark vertex as visited
+        visited[start] = true; // mark vertex as visited
 
         // while all possible vertices have not been visited
         while(!traversalStack.isEmpty()){
             currentVertex = traversalStack.peek();  
             foundASuccessor = false; 
-            LinkedList<T> successors = getSuccessors(currentVertex); // get 
+            IntList successors = arcs.get(currentVertex); // get 
             // successors of element at the top of the stack
-            for(int i = 0; i < successors.size() && !foundASuccessor; i++){
-                T currentSuccessor = successors.get(i);
-                if(! visitedVerts.contains(currentSuccessor)){
+            while(next[currentVertex] < successors.size() && !foundASuccessor){
+                int currentSuccessor = successors.get(next[currentVertex]++);
+                if(! visited[currentSuccessor]){
                     traversalStack.push(currentSuccessor);
-                    iter.add(currentSuccessor);
-                    visitedVerts.add(currentSuccessor);
+                    iter.add(vertices.get(currentSuccessor));
+                    visited[currentSuccessor] = true;
                     foundASuccessor = true;
                 }
 
@@ -180,11 +354,18 @@ public class AdjListsGraph<T> implements Graph<T>
      * @return ret the number of arcs in this graph
      */
     public int getNumArcs(){
-        int ret = 0;
-        for(int i = 0; i < arcs.size(); i++){ // test
-            ret += arcs.get(i).size();
-        }
-        return ret;
+        return numArcs; // counted as arcs are added and removed
+    }
+
+    /** 
+     * Getter for the number of changes made to this graph, so a copy 
+     * taken from it can tell whether it is out of date
+     * 
+     * @return a count that goes up every time a vertex or arc is added 
+     *         or removed
+     */
+    public int getModCount(){
+        return modCount;
     }
 
     /** 
@@ -195,11 +376,12 @@ public class AdjListsGraph<T> implements Graph<T>
      */
     public boolean isArc (T vertex1, T vertex2){
         // checks if vertex exists before checking if arc exists
-        if (vertices.contains(vertex1)){
-            // find index of vertex in vertices before searching 
-            // whetherthe linked list contains the second vertex 
-            int index = vertices.indexOf(vertex1); 
-            return arcs.get(index).contains(vertex2);
+        // find index of vertex in vertices before searching 
+        // whether the linked list contains the second vertex 
+        int index = getIndex(vertex1); 
+        int index2 = getIndex(vertex2);
+        if (index != -1 && index2 != -1){
+            return arcSet.contains(LongHashSet.pack(index, index2));
         }
         return false;
     }
@@ -225,7 +407,8 @@ public class AdjListsGraph<T> implements Graph<T>
     public boolean isUndirected(){
         for(int i = 0; i < vertices.size(); i++)
             for(int j = 0; j < arcs.get(i).size(); j++){
-                if(! isEdge (vertices.get(i), arcs.get(i).get(j))){
+                // arc i -> j exists, check for the arc back
+                if(! arcs.get(arcs.get(i).get(j)).contains(i)){
                     return false;
                 }
             }
@@ -239,9 +422,20 @@ public class AdjListsGraph<T> implements Graph<T>
      * @param vertex 
      */
     public void addVertex (T vertex){
-        if(!vertices.contains(vertex)){
+        if(!indices.containsKey(vertex)){
+            components = null;
+            modCount++;
+            if(connectivity != null){
+                connectivity.add();
+            }
+            indices.put(vertex, vertices.size());
             vertices.add(vertex);
-            arcs.add(new LinkedList<T>());
+            arcs.add(new IntList());
+            if(reverse != null){
+                reverse.add(new IntList());
+            }
+            outDegrees.add();
+            inDegrees.add();
         }
     }
 
@@ -249,13 +443,45 @@ public class AdjListsGraph<T> implements Graph<T>
      * Removes the given vertex from this graph. If the given vertex 
      * does not exist, the graph does not change.
      * 
+     * If the graph keeps predecessors, the last vertex is moved into the 
+     * place of the removed one, so only the arcs of those two vertices 
+     * are touched. Otherwise every vertex after the removed one shifts 
+     * down by one, keeping their order, and every list is renumbered.
+     * 
      * @param vertex
      */
     public void removeVertex (T vertex){
-        if(vertices.contains(vertex)){
-            int index = vertices.indexOf(vertex);
+        int index = getIndex(vertex);
+        if(index != -1 && reverse != null){
+            components = null;
+            modCount++;
+            connectivity = null; // unions cannot be undone, rebuild later
+            swapRemove(index);
+        } else if(index != -1){
+            components = null;
+            modCount++;
+            connectivity = null; // unions cannot be undone, rebuild later
             arcs.remove(index);
             vertices.remove(index);
+            indices.remove(vertex);
+            // every vertex after the removed one shifted down by one
+            for(int i = index; i < vertices.size(); i++){
+                indices.put(vertices.get(i), i);
+            }
+            // drop arcs into the removed vertex and renumber the rest
+            for(int i = 0; i < arcs.size(); i++){
+                IntList successors = arcs.get(i);
+                for(int j = successors.size() - 1; j >= 0; j--){
+                    int successor = successors.get(j);
+                    if(successor == index){
+                        successors.remove(j);
+                    } else if(successor > index){
+                        successors.set(j, successor - 1);
+                    }
+                }
+            }
+            // every position moved, so count the degrees and arcs again
+            rebuildCounts();
         }
     }
 
@@ -268,10 +494,22 @@ public class AdjListsGraph<T> implements Graph<T>
      *        destination of new arc
      */
     public void addArc (T vertex1, T vertex2){
-        if(vertices.contains(vertex1) &&
-           vertices.contains(vertex2) && 
-           !isArc(vertex1, vertex2)){ // prevents duplicates
-            arcs.get(vertices.indexOf(vertex1)).add(vertex2);
+        int index1 = getIndex(vertex1);
+        int index2 = getIndex(vertex2);
+        if(index1 != -1 && index2 != -1 && 
+           arcSet.add(LongHashSet.pack(index1, index2))){ // prevents duplicates
+            components = null;
+            modCount++;
+            arcs.get(index1).add(index2);
+            if(reverse != null){
+                reverse.get(index2).add(index1);
+            }
+            outDegrees.increment(index1);
+            inDegrees.increment(index2);
+            numArcs++;
+            if(connectivity != null){
+                connectivity.union(index1, index2);
+            }
         }
     }
 
@@ -285,15 +523,127 @@ public class AdjListsGraph<T> implements Graph<T>
      * 
      */
     public void removeArc (T vertex1, T vertex2){
-        if(vertices.contains(vertex1) &&
-           vertices.contains(vertex2) && 
-           isArc(vertex1, vertex2)){ // prevents dupliates
-            int indexOfVertex1 = vertices.indexOf(vertex1);
-            int index = arcs.get(indexOfVertex1).indexOf(vertex2);
+        if(indices.containsKey(vertex1) &&
+           indices.containsKey(vertex2) && 
+           arcSet.remove(LongHashSet.pack(getIndex(vertex1), getIndex(vertex2)))){
+            components = null;
+            modCount++;
+            connectivity = null; // unions cannot be undone, rebuild later
+            int indexOfVertex1 = getIndex(vertex1);
+            int index = arcs.get(indexOfVertex1).indexOf(getIndex(vertex2));
             arcs.get(indexOfVertex1).remove(index);
+            if(reverse != null){
+                IntList predecessors = reverse.get(getIndex(vertex2));
+                predecessors.remove(predecessors.indexOf(indexOfVertex1));
+            }
+            outDegrees.decrement(indexOfVertex1);
+            inDegrees.decrement(getIndex(vertex2));
+            numArcs--;
         }
     }
 
+    /** 
+     * Removes the vertex at index using the reverse lists: its arcs are 
+     * dropped from the lists of its neighbours, then the last vertex is 
+     * moved into its place and the arcs pointing at the last vertex are 
+     * renumbered. Takes time proportional to the degrees of the two 
+     * vertices rather than to the size of the graph.
+     * 
+     * @param index - position of the vertex to remove
+     */
+    private void swapRemove(int index){
+        IntList successors = arcs.get(index);
+        IntList predecessors = reverse.get(index);
+        // drop the arcs leaving the vertex, including any loop
+        for(int j = successors.size() - 1; j >= 0; j--){
+            int successor = successors.get(j);
+            IntList back = reverse.get(successor);
+            back.remove(back.indexOf(index));
+            successors.remove(j);
+            arcSet.remove(LongHashSet.pack(index, successor));
+            outDegrees.decrement(index);
+            inDegrees.decrement(successor);
+            numArcs--;
+        }
+        // drop the arcs entering the vertex
+        for(int j = predecessors.size() - 1; j >= 0; j--){
+            int predecessor = predecessors.get(j);
+            IntList forward = arcs.get(predecessor);
+            forward.remove(forward.indexOf(index));
+            predecessors.remove(j);
+            arcSet.remove(LongHashSet.pack(predecessor, index));
+            outDegrees.decrement(predecessor);
+            inDegrees.decrement(index);
+            numArcs--;
+        }
+
+        int last = vertices.size() - 1;
+        T removed = vertices.get(index);
+        if(index != last){
+            IntList lastSuccessors = arcs.get(last);
+            IntList lastPredecessors = reverse.get(last);
+            // forget the arcs of the last vertex under its old position
+            for(int j = 0; j < lastSuccessors.size(); j++){
+                arcSet.remove(LongHashSet.pack(last, lastSuccessors.get(j)));
+            }
+            for(int j = 0; j < lastPredecessors.size(); j++){
+                arcSet.remove(LongHashSet.pack(lastPredecessors.get(j), last));
+            }
+            // point the arcs of the last vertex at its new position
+            for(int j = 0; j < lastSuccessors.size(); j++){
+                IntList back = reverse.get(lastSuccessors.get(j));
+                back.set(back.indexOf(last), index);
+            }
+            for(int j = 0; j < lastPredecessors.size(); j++){
+                // a loop on the last vertex was renumbered just above, 
+                // but its list has not moved yet
+                int predecessor = lastPredecessors.get(j);
+                IntList forward = arcs.get(predecessor == index ? last : predecessor);
+                forward.set(forward.indexOf(last), index);
+            }
+            for(int j = 0; j < lastSuccessors.size(); j++){
+                arcSet.add(LongHashSet.pack(index, lastSuccessors.get(j)));
+            }
+            for(int j = 0; j < lastPredecessors.size(); j++){
+                arcSet.add(LongHashSet.pack(lastPredecessors.get(j), index));
+            }
+            T moved = vertices.get(last);
+            vertices.set(index, moved);
+            arcs.set(index, lastSuccessors);
+            reverse.set(index, lastPredecessors);
+            indices.put(moved, index);
+        }
+        vertices.remove(last);
+        arcs.remove(last);
+        reverse.remove(last);
+        indices.remove(removed);
+        outDegrees.remove(index);
+        inDegrees.remove(index);
+    }
+
+    /** 
+     * Counts the in- and out-degree of every vertex, the number of arcs 
+     * and the set of arcs from scratch
+     */
+    private void rebuildCounts(){
+        int n = vertices.size();
+        int[] out = new int[n];
+        int[] in = new int[n];
+        arcSet.clear();
+        numArcs = 0;
+        for(int i = 0; i < n; i++){
+            IntList successors = arcs.get(i);
+            out[i] = successors.size();
+            for(int j = 0; j < successors.size(); j++){
+                in[successors.get(j)]++;
+                arcSet.add(LongHashSet.pack(i, successors.get(j)));
+            }
+            numArcs += successors.size();
+        }
+        outDegrees.reset(out, n);
+        inDegrees.reset(in, n);
+    }
+
     /** 
      * Inserts the edge between the two given vertices of this graph,
      * if both vertices exist and edge does not already exist,
@@ -326,13 +676,17 @@ public class AdjListsGraph<T> implements Graph<T>
      * vertex.
      * 
      * @param A vertex in the graph whose successors will be returned.
-     * @return A LinkedList containing all the vertices x in the graph,
+     * @return A new LinkedList containing all the vertices x in the graph,
      * for which an arc exists from the given vertex to x (vertex -> x).
      *
      */
     public LinkedList<T> getSuccessors(T vertex){
-        int index = vertices.indexOf(vertex);
-        return arcs.get(index);
+        IntList successors = arcs.get(getIndex(vertex));
+        LinkedList<T> temp = new LinkedList<T>();
+        for(int i = 0; i < successors.size(); i++){
+            temp.add(vertices.get(successors.get(i)));
+        }
+        return temp;
     }
 
     /** 
@@ -347,17 +701,120 @@ public class AdjListsGraph<T> implements Graph<T>
     public LinkedList<T> getPredecessors(T vertex){
         // create linked list to store pred
         LinkedList<T> temp = new LinkedList<T>(); 
+        int index = getIndex(vertex);
+        if(index == -1){
+            return temp;
+        }
+        if(reverse != null){
+            // kept in the order the arcs were added
+            IntList predecessors = reverse.get(index);
+            for(int i = 0; i < predecessors.size(); i++){
+                temp.add(vertices.get(predecessors.get(i)));
+            }
+            return temp;
+        }
         // iterates through arc vector
         for(int i = 0; i < arcs.size() ; i++) {
-            // if vertex is in current linked list
-            // add the vertext of the linked list to temp
-            if(arcs.get(i).indexOf(vertex) != -1){
+            // if vertex is in current list
+            // add the vertext of the list to temp
+            if(arcs.get(i).indexOf(index) != -1){
                 temp.add(vertices.get(i));
             }
         }
         return temp;
     }
     
+    /** 
+     * Returns the connected components of this graph, labeling them in 
+     * one linear pass the first time they are asked for after a change.
+     * 
+     * @return component id and component size of every vertex
+     */
+    public ConnectedComponents<T> getComponents(){
+        if(components == null){
+            components = new ConnectedComponents<T>(this);
+        }
+        return components;
+    }
+
+    /** 
+     * Returns the disjoint set that tracks which vertices are connected, 
+     * rebuilding it from the arcs if a removal has invalidated it.
+     * 
+     * @return disjoint set over the vertex indices
+     */
+    private DisjointSet getConnectivity(){
+        if(connectivity == null){
+            connectivity = new DisjointSet();
+            for(int i = 0; i < vertices.size(); i++){
+                connectivity.add();
+            }
+            for(int i = 0; i < arcs.size(); i++){
+                for(int j = 0; j < arcs.get(i).size(); j++){
+                    connectivity.union(i, arcs.get(i).get(j));
+                }
+            }
+        }
+        return connectivity;
+    }
+
+    /** 
+     * Getter for the number of connected components, kept up to date as 
+     * vertices and arcs are added, so it can be read at any point while 
+     * the graph is being built. An arc in either direction connects two 
+     * vertices.
+     * 
+     * @return the number of connected components
+     */
+    public int getNumComponents(){
+        return getConnectivity().getNumSets();
+    }
+
+    /** 
+     * Getter for the size of the largest connected component, kept up to 
+     * date as vertices and arcs are added
+     * 
+     * @return the number of vertices in the largest connected component
+     */
+    public int getLargestComponentSize(){
+        return getConnectivity().getLargestSetSize();
+    }
+
+    /** 
+     * Returns true if there is a path between two vertices, ignoring the 
+     * direction of arcs
+     * 
+     * @return true if both vertices exist and are connected
+     */
+    public boolean isConnected(T vertex1, T vertex2){
+        int index1 = getIndex(vertex1);
+        int index2 = getIndex(vertex2);
+        return index1 != -1 && index2 != -1 && 
+               getConnectivity().connected(index1, index2);
+    }
+
+    /** 
+     * Takes a read-only snapshot of this graph in compressed sparse row
+     * form. Later changes to this graph do not affect the snapshot.
+     * 
+     * @return CsrGraph with the same vertices and arcs as this graph
+     */
+    public CsrGraph<T> freeze(){
+        T[] table = CsrGraph.toTable(vertices);
+        int[] offsets = new int[vertices.size() + 1];
+        for(int i = 0; i < vertices.size(); i++){
+            offsets[i + 1] = offsets[i] + arcs.get(i).size();
+        }
+        int[] targets = new int[offsets[vertices.size()]];
+        for(int i = 0; i < vertices.size(); i++){
+            IntList successors = arcs.get(i);
+            for(int j = 0; j < successors.size(); j++){
+                targets[offsets[i] + j] = successors.get(j);
+            }
+        }
+        return new CsrGraph<T>(table, offsets, targets);
+    }
+
     /** 
      * Writes this graph into a file in the TGF format.
      * 
@@ -374,9 +831,9 @@ public class AdjListsGraph<T> implements Graph<T>
             }
             writer.println("#");
             for(int i = 0; i < vertices.size(); i++){
-                LinkedList<T> successors = getSuccessors(vertices.get(i));
+                IntList successors = arcs.get(i);
                 for(int j = 0; j < successors.size(); j++){
-                    int successor = vertices.indexOf(successors.get(j)) + 1;
+                    int successor = successors.get(j) + 1;
                     writer.println(i + 1 + " "+ successor);
                 }
             }
@@ -386,6 +843,61 @@ public class AdjListsGraph<T> implements Graph<T>
         }
     }
 
+    /** 
+     * Reads a graph from a file in the TGF format, as written by 
+     * saveToTGF: one "id label" line per vertex, a "#" line, then one 
+     * "id id" line per arc. A vertex without a label is named by its id. 
+     * Lines that cannot be read are reported and skipped.
+     * 
+     * @param tgf_file_name - the TGF file to read
+     * @return a graph with the vertices and arcs of the file, empty if 
+     *         the file cannot be read
+     */
+    public static AdjListsGraph<String> loadFromTGF(String tgf_file_name){
+        GraphBuilder<String> builder = new GraphBuilder<String>();
+        HashMap<String, Integer> ids = new HashMap<String, Integer>();
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(tgf_file_name));
+            boolean readingArcs = false;
+            int lineNumber = 0;
+            String line;
+            while((line = reader.readLine()) != null){
+                lineNumber++;
+                line = line.trim();
+                if(line.isEmpty()){
+                    continue;
+                }
+                if(line.equals("#")){
+                    readingArcs = true;
+                    continue;
+                }
+                int space = line.indexOf(' ');
+                String first = (space == -1) ? line : line.substring(0, space);
+                String rest = (space == -1) ? "" : line.substring(space + 1).trim();
+                if(!readingArcs){
+                    // the label is the rest of the line, spaces and all
+                    ids.put(first, builder.addVertex(rest.isEmpty() ? first : rest));
+                } else {
+                    // an arc may carry a label after its two ids
+                    int end = rest.indexOf(' ');
+                    String second = (end == -1) ? rest : rest.substring(0, end);
+                    Integer from = ids.get(first);
+                    Integer to = ids.get(second);
+                    if(from == null || to == null){
+                        System.out.println(tgf_file_name + ", line " + lineNumber + 
+                                           ": unknown vertex in arc \"" + line + "\"");
+                    } else {
+                        builder.addArc(from, to);
+                    }
+                }
+            }
+            reader.close();
+        } catch (IOException ex){
+            System.out.println(ex);
+        }
+        return builder.build();
+    }
+
     /** 
      * Returns a string representation of this graph, containing its 
      * vertices and arcs
@@ -398,7 +910,7 @@ public class AdjListsGraph<T> implements Graph<T>
         ret += "\nEdges: ";
         for(int i = 0; i < vertices.size(); i++){
             ret += "\nfrom " + vertices.get(i) +": "; 
-            ret += arcs.get(i);
+            ret += getSuccessors(vertices.get(i));
         }
         return ret;
     }
@@ -509,5 +1021,121 @@ public class AdjListsGraph<T> implements Graph<T>
         System.out.println("C--> expected: [C, A, B], actual: " + cycle.DFS("C"));
         cycle.saveToTGF("Cycle.tgf");
         
+        CsrGraph<String> frozen = bipartite.freeze();
+        System.out.println();
+        System.out.println();
+        System.out.println("***TESTING freeze() ON BIPARTITE***");
+        System.out.println("arcs--> expected: " + bipartite.getNumArcs() + ", actual: " + frozen.getNumArcs());
+        System.out.println("A--> expected: [B, F], actual: " + frozen.getSuccessors("A"));
+        System.out.println("B--> expected: [A, E], actual: " + frozen.getPredecessors("B"));
+        System.out.println("BFS A--> expected: [A, B, F, E, C, D], actual: " + frozen.BFS("A"));
+        System.out.println("DFS A--> expected: [A, B, E, F, C, D], actual: " + frozen.DFS("A"));
+        System.out.println("isEdge(C, F)--> expected: true, actual: " + frozen.isEdge("C", "F"));
+        System.out.println("isUndirected()--> expected: true, actual: " + frozen.isUndirected());
+        
+        System.out.println();
+        System.out.println("***TESTING index based successors***");
+        int a = bipartite.getIndex("A");
+        System.out.print("A--> expected: B F, actual:");
+        for(int i = 0; i < bipartite.getNumSuccessors(a); i++){
+            System.out.print(" " + bipartite.getVertex(bipartite.getSuccessor(a, i)));
+        }
+        System.out.println();
+        
+        System.out.println("***TESTING removeVertex***");
+        cycle.removeVertex("A");
+        System.out.println("B--> expected: [C], actual: " + cycle.getSuccessors("B"));
+        System.out.println("C--> expected: [B], actual: " + cycle.getSuccessors("C"));
+        System.out.println("arcs--> expected: 2, actual: " + cycle.getNumArcs());
+        
+        System.out.println();
+        System.out.println("***TESTING getComponents()***");
+        ConnectedComponents<String> parts = discon.getComponents();
+        System.out.println("count--> expected: 2, actual: " + parts.getNumComponents());
+        System.out.println("largest--> expected: 2, actual: " + parts.getLargestComponentSize());
+        System.out.println("A and B--> expected: true, actual: " + 
+                           (parts.getComponent("A") == parts.getComponent("B")));
+        System.out.println("C--> expected: 1, actual: " + parts.getComponentSizeOf("C"));
+        System.out.println("live count--> expected: 2, actual: " + discon.getNumComponents());
+        discon.addEdge("B", "C");
+        System.out.println("after addEdge(B, C)--> expected: 1, actual: " + 
+                           discon.getComponents().getNumComponents());
+        System.out.println("live count--> expected: 1, actual: " + discon.getNumComponents());
+        System.out.println("live largest--> expected: 3, actual: " + discon.getLargestComponentSize());
+        discon.removeEdge("A", "B");
+        System.out.println("after removeEdge(A, B)--> expected: 2, actual: " + discon.getNumComponents());
+        System.out.println("isConnected(A, C)--> expected: false, actual: " + discon.isConnected("A", "C"));
+
+        System.out.println();
+        System.out.println("***TESTING degree index***");
+        AdjListsGraph<String> star = new AdjListsGraph<String>();
+        star.addVertex("hub");
+        star.addVertex("x");
+        star.addVertex("y");
+        star.addVertex("z");
+        star.addEdge("hub", "x");
+        star.addEdge("hub", "y");
+        star.addEdge("hub", "z");
+        star.addArc("x", "y");
+        System.out.println("arcs--> expected: 7, actual: " + star.getNumArcs());
+        System.out.println("out(hub)--> expected: 3, actual: " + star.getOutDegree(star.getIndex("hub")));
+        System.out.println("in(y)--> expected: 2, actual: " + star.getInDegree(star.getIndex("y")));
+        System.out.println("max out--> expected: 3, actual: " + star.getOutDegrees().getMaxDegree());
+        System.out.println("with max--> expected: hub, actual: " + 
+                           star.getVertex(star.getOutDegrees().getWithDegree(3, 0)));
+        System.out.println("histogram--> expected: [0, 2, 1, 1], actual: " + 
+                           Arrays.toString(star.getOutDegrees().getHistogram()));
+        star.removeEdge("hub", "x");
+        System.out.println("after removeEdge(hub, x) max out--> expected: 2, actual: " + 
+                           star.getOutDegrees().getMaxDegree());
+        star.removeVertex("y");
+        System.out.println("after removeVertex(y) arcs--> expected: 2, actual: " + star.getNumArcs());
+        System.out.println("histogram--> expected: [1, 2], actual: " + 
+                           Arrays.toString(star.getOutDegrees().getHistogram()));
+
+        System.out.println();
+        System.out.println("***TESTING reverse adjacency***");
+        AdjListsGraph<String> tracked = new AdjListsGraph<String>(true);
+        tracked.addVertex("A");
+        tracked.addVertex("B");
+        tracked.addVertex("C");
+        tracked.addVertex("D");
+        tracked.addArc("A", "B");
+        tracked.addArc("C", "B");
+        tracked.addArc("D", "B");
+        tracked.addArc("B", "D");
+        tracked.addArc("D", "D");
+        System.out.println("B--> expected: [A, C, D], actual: " + tracked.getPredecessors("B"));
+        tracked.removeArc("C", "B");
+        System.out.println("after removeArc(C, B)--> expected: [A, D], actual: " + 
+                           tracked.getPredecessors("B"));
+        tracked.removeVertex("A");
+        System.out.println("after removeVertex(A) vertices--> expected: [D, B, C], actual: " + 
+                           tracked.getVertices());
+        System.out.println("B--> expected: [D], actual: " + tracked.getPredecessors("B"));
+        System.out.println("D--> expected: [B, D], actual: " + tracked.getSuccessors("D"));
+        System.out.println("D preds--> expected: [B, D], actual: " + tracked.getPredecessors("D"));
+        System.out.println("arcs--> expected: 3, actual: " + tracked.getNumArcs());
+        tracked.removeVertex("D");
+        System.out.println("after removeVertex(D)--> expected: [C, B] 0, actual: " + 
+                           tracked.getVertices() + " " + tracked.getNumArcs());
+        System.out.println("missing preds--> expected: [], actual: " + 
+                           tracked.getPredecessors("Z"));
+        try{
+            star.getPredecessor(0, 0);
+            System.out.println("untracked getPredecessor--> expected: IllegalStateException, actual: none");
+        } catch (IllegalStateException ex) {
+            System.out.println("untracked getPredecessor--> expected: IllegalStateException, actual: " + 
+                               ex.getClass().getSimpleName());
+        }
+
+        System.out.println("***TESTING getModCount***");
+        int before = tracked.getModCount();
+        tracked.addArc("C", "B");
+        tracked.addArc("C", "B"); // already there, nothing changes
+        tracked.addVertex("B");
+        System.out.println("changes--> expected: 1, actual: " + 
+                           (tracked.getModCount() - before));
+        
     }
 }
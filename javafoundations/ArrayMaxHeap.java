@@ -0,0 +1,407 @@
+//*******************************************************************
+//  ArrayMaxHeap.java       Java Foundations
+//
+//  Implements a max heap using an array. The children of the element
+//  at index i are at 2i+1 and 2i+2, so the next free leaf is always
+//  at index size() and no nodes or links are allocated.
+//*******************************************************************
+
+package javafoundations;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import javafoundations.exceptions.*;
+
+public class ArrayMaxHeap<T extends Comparable<T>> implements MaxHeap<T>
+{
+   private final int DEFAULT_CAPACITY = 16;
+   private int count;
+   private T[] heap;
+
+   //-----------------------------------------------------------------
+   //  Creates an empty heap using the default capacity.
+   //-----------------------------------------------------------------
+   public ArrayMaxHeap()
+   {
+      count = 0;
+      heap = newArray(DEFAULT_CAPACITY);
+   }
+
+   //-----------------------------------------------------------------
+   //  Creates a heap holding the specified elements. The elements are
+   //  copied and heapified bottom up, which takes O(n) time instead
+   //  of the O(n log n) of adding them one at a time.
+   //-----------------------------------------------------------------
+   public ArrayMaxHeap (T[] elements)
+   {
+      count = elements.length;
+      heap = newArray(Math.max(count, DEFAULT_CAPACITY));
+      System.arraycopy(elements, 0, heap, 0, count);
+      heapify();
+   }
+
+   //-----------------------------------------------------------------
+   //  Creates a heap holding the elements of the specified collection,
+   //  heapified bottom up in O(n) time.
+   //-----------------------------------------------------------------
+   public ArrayMaxHeap (Collection<? extends T> elements)
+   {
+      count = 0;
+      heap = newArray(Math.max(elements.size(), DEFAULT_CAPACITY));
+      for (T element : elements)
+         heap[count++] = element;
+      heapify();
+   }
+
+   //-----------------------------------------------------------------
+   //  Creates an empty array for the heap. Only elements of type T are
+   //  ever stored in it, so the cast is safe.
+   //-----------------------------------------------------------------
+   @SuppressWarnings("unchecked")
+   private T[] newArray (int capacity)
+   {
+      return (T[]) new Comparable<?>[capacity];
+   }
+
+   //-----------------------------------------------------------------
+   //  Restores the heap property over the whole array by sifting down
+   //  every element that has children, last parent first.
+   //-----------------------------------------------------------------
+   private void heapify()
+   {
+      for (int index = count/2 - 1; index >= 0; index--)
+         siftDown(index);
+   }
+
+   //-----------------------------------------------------------------
+   //  Adds the specified element to this heap as the next leaf then
+   //  moves it up until its parent is at least as large.
+   //-----------------------------------------------------------------
+   public void add (T element)
+   {
+      if (count == heap.length)
+         expandCapacity();
+
+      int index = count++;
+      while (index > 0)
+      {
+         int parent = (index - 1) / 2;
+         if (heap[parent].compareTo(element) >= 0)
+            break;
+         heap[index] = heap[parent];
+         index = parent;
+      }
+      heap[index] = element;
+   }
+
+   //-----------------------------------------------------------------
+   //  Remove the element with the largest value in this heap and
+   //  returns a reference to it.
+   //-----------------------------------------------------------------
+   public T removeMax()
+   {
+      if (count == 0)
+         throw new EmptyCollectionException ("Remove max operation " +
+            "failed. Tree is empty.");
+
+      T maxElement = heap[0];
+      count--;
+      heap[0] = heap[count];
+      heap[count] = null;
+      if (count > 0)
+         siftDown(0);
+
+      return maxElement;
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns the element with the largest value in this heap.
+   //-----------------------------------------------------------------
+   public T getMax()
+   {
+      if (count == 0)
+         throw new EmptyCollectionException ("Get max operation " +
+            "failed. Tree is empty.");
+
+      return heap[0];
+   }
+
+   //-----------------------------------------------------------------
+   //  Moves the element at the specified index down until both of its
+   //  children are no larger than it.
+   //-----------------------------------------------------------------
+   private void siftDown (int index)
+   {
+      T element = heap[index];
+      int child = 2*index + 1;
+      while (child < count)
+      {
+         if (child + 1 < count && heap[child+1].compareTo(heap[child]) > 0)
+            child++;
+         if (heap[child].compareTo(element) <= 0)
+            break;
+         heap[index] = heap[child];
+         index = child;
+         child = 2*index + 1;
+      }
+      heap[index] = element;
+   }
+
+   //-----------------------------------------------------------------
+   //  Creates a new array to store the contents of this heap with
+   //  twice the capacity of the old one.
+   //-----------------------------------------------------------------
+   private void expandCapacity()
+   {
+      T[] larger = newArray(heap.length*2);
+      System.arraycopy(heap, 0, larger, 0, count);
+      heap = larger;
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns the element stored in the root of the heap. Throws an
+   //  EmptyCollectionException if the heap is empty.
+   //-----------------------------------------------------------------
+   public T getRootElement()
+   {
+      if (count == 0)
+         throw new EmptyCollectionException ("Get root operation "
+            + "failed. The tree is empty.");
+
+      return heap[0];
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns a copy of the left subtree of the root, which is also a
+   //  heap.
+   //-----------------------------------------------------------------
+   public ArrayMaxHeap<T> getLeft()
+   {
+      if (count == 0)
+         throw new EmptyCollectionException ("Get left operation "
+            + "failed. The tree is empty.");
+
+      return subtree(1);
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns a copy of the right subtree of the root, which is also a
+   //  heap.
+   //-----------------------------------------------------------------
+   public ArrayMaxHeap<T> getRight()
+   {
+      if (count == 0)
+         throw new EmptyCollectionException ("Get right operation "
+            + "failed. The tree is empty.");
+
+      return subtree(2);
+   }
+
+   //-----------------------------------------------------------------
+   //  Copies the subtree rooted at the specified index level by level.
+   //  Each level of a subtree is a run of consecutive indexes, twice as
+   //  wide as the one above it, so the copy keeps the same shape.
+   //-----------------------------------------------------------------
+   private ArrayMaxHeap<T> subtree (int index)
+   {
+      ArrayMaxHeap<T> result = new ArrayMaxHeap<T>();
+      for (int width = 1; index < count; index = 2*index + 1, width *= 2)
+         for (int i = index; i < index + width && i < count; i++)
+            result.add(heap[i]);
+
+      return result;
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns true if this heap contains an element that matches the
+   //  specified target and false otherwise.
+   //-----------------------------------------------------------------
+   public boolean contains (T target)
+   {
+      for (int index = 0; index < count; index++)
+         if (heap[index].equals(target))
+            return true;
+
+      return false;
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns the element in this heap that matches the specified
+   //  target. Throws a ElementNotFoundException if the target is not
+   //  found.
+   //-----------------------------------------------------------------
+   public T find (T target)
+   {
+      for (int index = 0; index < count; index++)
+         if (heap[index].equals(target))
+            return heap[index];
+
+      throw new ElementNotFoundException("Find operation failed. "
+         + "No such element in tree.");
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns true if this heap contains no elements.
+   //-----------------------------------------------------------------
+   public boolean isEmpty()
+   {
+      return (count == 0);
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns the number of elements in this heap.
+   //-----------------------------------------------------------------
+   public int size()
+   {
+      return count;
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns a string representation of this heap, one element per
+   //  line in inorder.
+   //-----------------------------------------------------------------
+   public String toString()
+   {
+      StringBuilder result = new StringBuilder();
+      Iterator<T> iter = iterator();
+      while (iter.hasNext())
+         result.append(iter.next()).append("\n");
+      return result.toString();
+   }
+
+   //-----------------------------------------------------------------
+   //  Populates and returns an iterator containing the elements in
+   //  this heap using a preorder traversal.
+   //-----------------------------------------------------------------
+   public Iterator<T> preorder()
+   {
+      ArrayIterator<T> iter = new ArrayIterator<T>();
+      preorder(0, iter);
+      return iter;
+   }
+
+   private void preorder (int index, ArrayIterator<T> iter)
+   {
+      if (index < count)
+      {
+         iter.add(heap[index]);
+         preorder(2*index + 1, iter);
+         preorder(2*index + 2, iter);
+      }
+   }
+
+   //-----------------------------------------------------------------
+   //  Populates and returns an iterator containing the elements in
+   //  this heap using an inorder traversal.
+   //-----------------------------------------------------------------
+   public Iterator<T> inorder()
+   {
+      ArrayIterator<T> iter = new ArrayIterator<T>();
+      inorder(0, iter);
+      return iter;
+   }
+
+   private void inorder (int index, ArrayIterator<T> iter)
+   {
+      if (index < count)
+      {
+         inorder(2*index + 1, iter);
+         iter.add(heap[index]);
+         inorder(2*index + 2, iter);
+      }
+   }
+
+   //-----------------------------------------------------------------
+   //  Populates and returns an iterator containing the elements in
+   //  this heap using a postorder traversal.
+   //-----------------------------------------------------------------
+   public Iterator<T> postorder()
+   {
+      ArrayIterator<T> iter = new ArrayIterator<T>();
+      postorder(0, iter);
+      return iter;
+   }
+
+   private void postorder (int index, ArrayIterator<T> iter)
+   {
+      if (index < count)
+      {
+         postorder(2*index + 1, iter);
+         postorder(2*index + 2, iter);
+         iter.add(heap[index]);
+      }
+   }
+
+   //-----------------------------------------------------------------
+   //  Populates and returns an iterator containing the elements in
+   //  this heap using a levelorder traversal, which is array order.
+   //-----------------------------------------------------------------
+   public Iterator<T> levelorder()
+   {
+      ArrayIterator<T> iter = new ArrayIterator<T>();
+      for (int index = 0; index < count; index++)
+         iter.add(heap[index]);
+      return iter;
+   }
+
+   //-----------------------------------------------------------------
+   //  Satisfies the Iterable interface using an inorder traversal.
+   //-----------------------------------------------------------------
+   public Iterator<T> iterator()
+   {
+      return inorder();
+   }
+
+   //-----------------------------------------------------------------
+   //  Main method for testing.
+   //-----------------------------------------------------------------
+   public static void main (String[] args)
+   {
+      System.out.println("***TESTING ArrayMaxHeap***");
+      ArrayMaxHeap<Integer> heap = new ArrayMaxHeap<Integer>();
+      for (int value : new int[] {5, 1, 9, 3, 9, 7})
+         heap.add(value);
+      System.out.println("size--> expected: 6, actual: " + heap.size());
+      System.out.println("getMax--> expected: 9, actual: " + heap.getMax());
+      StringBuilder order = new StringBuilder();
+      while (!heap.isEmpty())
+         order.append(heap.removeMax()).append(" ");
+      System.out.println("removeMax order--> expected: 9 9 7 5 3 1 , actual: " + order);
+
+      // more elements than the default capacity, heapified at once
+      Integer[] values = new Integer[40];
+      for (int i = 0; i < values.length; i++)
+         values[i] = (i * 17) % 40;
+      ArrayMaxHeap<Integer> built = new ArrayMaxHeap<Integer>(values);
+      System.out.println("built getMax--> expected: 39, actual: " + built.getMax());
+      built.add(100);
+      System.out.println("after add(100)--> expected: 100 41, actual: " +
+         built.getMax() + " " + built.size());
+      boolean sorted = true;
+      int previous = built.removeMax();
+      while (!built.isEmpty())
+      {
+         int next = built.removeMax();
+         sorted = sorted && next <= previous;
+         previous = next;
+      }
+      System.out.println("removed largest first--> expected: true, actual: " + sorted);
+
+      ArrayMaxHeap<String> words = new ArrayMaxHeap<String>(Arrays.asList("b", "c", "a"));
+      System.out.println("levelorder root--> expected: c, actual: " + words.levelorder().next());
+      System.out.println("contains(a)--> expected: true, actual: " + words.contains("a"));
+      System.out.println("getLeft root--> expected: b, actual: " + words.getLeft().getRootElement());
+
+      try
+      {
+         new ArrayMaxHeap<Integer>().removeMax();
+         System.out.println("empty removeMax--> expected: EmptyCollectionException, actual: none");
+      }
+      catch (EmptyCollectionException exception)
+      {
+         System.out.println("empty removeMax--> expected: EmptyCollectionException, actual: " +
+            exception.getClass().getSimpleName());
+      }
+   }
+}
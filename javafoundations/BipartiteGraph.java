@@ -0,0 +1,264 @@
+package javafoundations;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * An undirected bipartite graph between users and stories. Each side has
+ * its own dense id space: users are numbered 0 to getNumUsers() - 1 in the
+ * order they were added, and stories 0 to getNumStories() - 1. Users are
+ * looked up by screen name and stories by their numeric TwitterTrails id,
+ * and each side keeps its own adjacency lists of ids on the other side, so
+ * walking one side never has to filter out the other.
+ *
+ * Users also carry the metadata of the export they were read from:
+ * user_id, tweet_count and story_count.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class BipartiteGraph
+{
+    private final int DEFAULT_CAPACITY = 16;
+
+    // user side
+    private Vector<String> userNames;
+    private HashMap<String, Integer> userIndices; // screen name -> user id
+    private long[] userIds; // TwitterTrails user_id of each user
+    private int[] tweetCounts;
+    private int[] storyCounts;
+    private Vector<IntList> userStories; // story ids of each user
+
+    // story side
+    private long[] storyIds; // TwitterTrails id of each story
+    private LongIntHashMap storyIndices; // TwitterTrails id -> story id
+    private Vector<IntList> storyUsers; // user ids of each story
+
+    private LongHashSet edges; // every edge packed as (user, story)
+    private int numEdges;
+
+    /**
+     * Constructor
+     * Creates a graph with no users or stories.
+     */
+    public BipartiteGraph(){
+        userNames = new Vector<String>();
+        userIndices = new HashMap<String, Integer>();
+        userIds = new long[DEFAULT_CAPACITY];
+        tweetCounts = new int[DEFAULT_CAPACITY];
+        storyCounts = new int[DEFAULT_CAPACITY];
+        userStories = new Vector<IntList>();
+        storyIds = new long[DEFAULT_CAPACITY];
+        storyIndices = new LongIntHashMap();
+        storyUsers = new Vector<IntList>();
+        edges = new LongHashSet();
+        numEdges = 0;
+    }
+
+    /**
+     * Adds a user. If a user with the same screen name already exists the
+     * graph does not change.
+     *
+     * @param screenName - the user's screen name
+     * @param userId - TwitterTrails user_id
+     * @param tweetCount - tweet_count from the export
+     * @param storyCount - story_count from the export
+     * @return the id of the user
+     */
+    public int addUser(String screenName, long userId, int tweetCount, int storyCount){
+        Integer existing = userIndices.get(screenName);
+        if(existing != null){
+            return existing;
+        }
+        int u = userNames.size();
+        if(u == userIds.length){
+            userIds = Arrays.copyOf(userIds, u * 2);
+            tweetCounts = Arrays.copyOf(tweetCounts, u * 2);
+            storyCounts = Arrays.copyOf(storyCounts, u * 2);
+        }
+        userNames.add(screenName);
+        userIndices.put(screenName, u);
+        userIds[u] = userId;
+        tweetCounts[u] = tweetCount;
+        storyCounts[u] = storyCount;
+        userStories.add(new IntList());
+        return u;
+    }
+
+    /**
+     * Adds a story. If the story already exists the graph does not change.
+     *
+     * @param storyId - TwitterTrails id of the story
+     * @return the id of the story in this graph
+     */
+    public int addStory(long storyId){
+        int existing = storyIndices.get(storyId, -1);
+        if(existing != -1){
+            return existing;
+        }
+        int s = storyUsers.size();
+        if(s == storyIds.length){
+            storyIds = Arrays.copyOf(storyIds, s * 2);
+        }
+        storyIds[s] = storyId;
+        storyIndices.put(storyId, s);
+        storyUsers.add(new IntList());
+        return s;
+    }
+
+    /**
+     * Connects a user and a story. If they are already connected the
+     * graph does not change.
+     *
+     * @param user - id of the user
+     * @param story - id of the story
+     */
+    public void addEdge(int user, int story){
+        if(edges.add(LongHashSet.pack(user, story))){ // prevents duplicates
+            userStories.get(user).add(story);
+            storyUsers.get(story).add(user);
+            numEdges++;
+        }
+    }
+
+    /**
+     * Getter for the number of users
+     *
+     * @return the number of users
+     */
+    public int getNumUsers(){
+        return userNames.size();
+    }
+
+    /**
+     * Getter for the number of stories
+     *
+     * @return the number of stories
+     */
+    public int getNumStories(){
+        return storyUsers.size();
+    }
+
+    /**
+     * Getter for the number of user-story edges
+     *
+     * @return the number of edges
+     */
+    public int getNumEdges(){
+        return numEdges;
+    }
+
+    /**
+     * Looks up a user by screen name
+     *
+     * @param screenName - the user's screen name
+     * @return the id of the user, or -1 if there is no such user
+     */
+    public int getUser(String screenName){
+        Integer index = userIndices.get(screenName);
+        return (index == null) ? -1 : index;
+    }
+
+    /**
+     * Looks up a story by its TwitterTrails id
+     *
+     * @param storyId - TwitterTrails id of the story
+     * @return the id of the story in this graph, or -1 if there is none
+     */
+    public int getStory(long storyId){
+        return storyIndices.get(storyId, -1);
+    }
+
+    /**
+     * Getter for the screen name of a user
+     */
+    public String getUserName(int user){
+        return userNames.get(user);
+    }
+
+    /**
+     * Getter for the TwitterTrails user_id of a user
+     */
+    public long getUserId(int user){
+        return userIds[user];
+    }
+
+    /**
+     * Getter for the tweet_count of a user
+     */
+    public int getTweetCount(int user){
+        return tweetCounts[user];
+    }
+
+    /**
+     * Getter for the story_count of a user, as given in the export
+     */
+    public int getStoryCount(int user){
+        return storyCounts[user];
+    }
+
+    /**
+     * Getter for the TwitterTrails id of a story
+     */
+    public long getStoryId(int story){
+        return storyIds[story];
+    }
+
+    /**
+     * Getter for the number of stories a user is connected to
+     */
+    public int getUserDegree(int user){
+        return userStories.get(user).size();
+    }
+
+    /**
+     * Getter for one of the stories a user is connected to
+     *
+     * @param user - id of the user
+     * @param i - from 0 to getUserDegree(user) - 1
+     * @return id of the story
+     */
+    public int getUserStory(int user, int i){
+        return userStories.get(user).get(i);
+    }
+
+    /**
+     * Getter for the number of users a story is connected to
+     */
+    public int getStoryDegree(int story){
+        return storyUsers.get(story).size();
+    }
+
+    /**
+     * Getter for one of the users a story is connected to
+     *
+     * @param story - id of the story
+     * @param i - from 0 to getStoryDegree(story) - 1
+     * @return id of the user
+     */
+    public int getStoryUser(int story, int i){
+        return storyUsers.get(story).get(i);
+    }
+
+    /**
+     * Returns a string representation of this graph, listing the stories
+     * of every user
+     *
+     * @return String
+     */
+    public String toString(){
+        StringBuilder ret = new StringBuilder("Users: " + getNumUsers() +
+            ", Stories: " + getNumStories() + ", Edges: " + numEdges);
+        for(int u = 0; u < getNumUsers(); u++){
+            ret.append("\n").append(userNames.get(u)).append(": [");
+            for(int i = 0; i < getUserDegree(u); i++){
+                if(i > 0){
+                    ret.append(", ");
+                }
+                ret.append(storyIds[getUserStory(u, i)]);
+            }
+            ret.append("]");
+        }
+        return ret.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package javafoundations;
+import java.util.List;
+
+/**
+ * The vertices scored by ClosenessCentrality, ranked from most to least
+ * central. A vertex is more central the smaller the sum of its distances
+ * to every other vertex of its connected component; ties are broken by
+ * position in the graph so every run ranks the same way. Results ranked
+ * by harmonic centrality put the largest sum of 1/distance first instead,
+ * and may include vertices outside the largest component.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class CentralityResult<T>
+{
+    // instance variables
+    private List<T> vertices; // ranked vertices, most central first
+    private long[] distanceSums; // distanceSums[r] belongs to vertices[r]
+    private double[] harmonic; // harmonic[r] belongs to vertices[r]
+    private int[] reach; // size of the component of vertices[r]
+    private int componentSize; // number of vertices in the largest component
+    private boolean byHarmonic; // true if ranked by harmonic centrality
+
+    /**
+     * Constructor. The arrays must already be in rank order.
+     *
+     * @param vertices - ranked vertices, most central first
+     * @param distanceSums - sum of distances of each ranked vertex
+     * @param harmonic - harmonic centrality of each ranked vertex
+     * @param reach - size of the connected component of each ranked vertex
+     * @param componentSize - size of the largest connected component
+     * @param byHarmonic - true if ranked by harmonic centrality
+     */
+    CentralityResult(List<T> vertices, long[] distanceSums, double[] harmonic,
+                     int[] reach, int componentSize, boolean byHarmonic){
+        this.vertices = vertices;
+        this.distanceSums = distanceSums;
+        this.harmonic = harmonic;
+        this.reach = reach;
+        this.componentSize = componentSize;
+        this.byHarmonic = byHarmonic;
+    }
+
+    /**
+     * Getter for the number of ranked vertices
+     *
+     * @return the number of ranked vertices
+     */
+    public int size(){
+        return vertices.size();
+    }
+
+    /**
+     * Getter for the number of vertices in the scored component
+     *
+     * @return the size of the largest connected component
+     */
+    public int getComponentSize(){
+        return componentSize;
+    }
+
+    /**
+     * Getter for the vertex at a rank
+     *
+     * @param rank - from 0 (most central) to size() - 1
+     * @return the vertex at that rank
+     */
+    public T getVertex(int rank){
+        return vertices.get(rank);
+    }
+
+    /**
+     * Getter for the sum of distances from the vertex at a rank to every
+     * other vertex of the component
+     *
+     * @param rank - from 0 (most central) to size() - 1
+     * @return the sum of distances
+     */
+    public long getDistanceSum(int rank){
+        return distanceSums[rank];
+    }
+
+    /**
+     * Getter for the closeness of the vertex at a rank, the number of
+     * other vertices in its component divided by the sum of distances to
+     * them
+     *
+     * @param rank - from 0 (most central) to size() - 1
+     * @return closeness between 0 and 1, 0 for an isolated vertex
+     */
+    public double getCloseness(int rank){
+        if(distanceSums[rank] == 0){
+            return 0;
+        }
+        return (reach[rank] - 1) / (double) distanceSums[rank];
+    }
+
+    /**
+     * Getter for the harmonic centrality of the vertex at a rank, the sum
+     * of 1/distance to every other vertex it can reach
+     *
+     * @param rank - from 0 (most central) to size() - 1
+     * @return harmonic centrality, 0 for an isolated vertex
+     */
+    public double getHarmonic(int rank){
+        return harmonic[rank];
+    }
+
+    /**
+     * Returns true if the vertices were ranked by harmonic centrality
+     * rather than by sum of distances
+     */
+    public boolean isHarmonic(){
+        return byHarmonic;
+    }
+
+    /**
+     * Getter for the score the vertices were ranked by: the raw harmonic
+     * centrality, or the closeness
+     *
+     * @param rank - from 0 (most central) to size() - 1
+     * @return getHarmonic(rank) if isHarmonic(), else getCloseness(rank)
+     */
+    public double getScore(int rank){
+        return byHarmonic ? getHarmonic(rank) : getCloseness(rank);
+    }
+
+    /**
+     * Getter for the most central vertex
+     *
+     * @return the vertex with rank 0, or null if nothing was ranked
+     */
+    public T getMostCentral(){
+        return vertices.isEmpty() ? null : getVertex(0);
+    }
+
+    /**
+     * Returns the top ranked vertices, one line of
+     * "rank,vertex,distance sum,harmonic centrality" each
+     *
+     * @param topNum - how many ranks to include
+     * @return String
+     */
+    public String toString(int topNum){
+        StringBuilder ret = new StringBuilder();
+        for(int r = 0; r < topNum && r < vertices.size(); r++){
+            ret.append(r + 1).append(",").append(vertices.get(r)).append(",")
+                .append(distanceSums[r]).append(",")
+                .append(String.format("%.3f", harmonic[r])).append("\n");
+        }
+        return ret.toString();
+    }
+
+    /**
+     * Returns every ranked vertex, one line of
+     * "rank,vertex,distance sum,harmonic centrality" each
+     *
+     * @return String
+     */
+    public String toString(){
+        return toString(vertices.size());
+    }
+}
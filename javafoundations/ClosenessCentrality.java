@@ -0,0 +1,353 @@
+package javafoundations;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Scores vertices of a graph by closeness. One Breadth-First Search from
+ * a source gives its distance to every vertex it can reach, so ranking n
+ * sources costs n searches instead of one search per pair of vertices.
+ *
+ * Only the largest connected component is scored, since distances to
+ * vertices that cannot be reached are undefined. The graph is treated as
+ * undirected: components are found by following successors, which for
+ * graphs built with addEdge are also the predecessors.
+ *
+ * Harmonic centrality, the sum of 1/distance to every reachable vertex,
+ * is computed by the same searches and is reported alongside closeness.
+ *
+ * Sources can be scored in parallel: they are split across a ForkJoinPool
+ * and every worker thread reuses one distance array and one queue for all
+ * of its searches. The graph is only read, so give it a read-only
+ * snapshot such as a CsrGraph. Ties are broken by vertex position, so a
+ * parallel run ranks exactly like a serial one.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class ClosenessCentrality<T>
+{
+    // instance variables
+    private Graph<T> graph;
+    private boolean[] inLargest; // inLargest[i] is true if vertex i is in
+    // the largest connected component
+    private int largestSize;
+    private ConnectedComponents<T> components;
+    // sources scored by one task before it stops splitting
+    private static final int SOURCES_PER_TASK = 16;
+
+    /**
+     * Constructor, finds the largest connected component of the graph.
+     * The graph must not change while this object is in use.
+     *
+     * @param graph - the graph whose vertices will be scored
+     */
+    public ClosenessCentrality(Graph<T> graph){
+        this(graph, new ConnectedComponents<T>(graph));
+    }
+
+    /**
+     * Constructor that reuses components already labeled for the graph,
+     * such as the ones a CsrGraph keeps.
+     *
+     * @param graph - the graph whose vertices will be scored
+     * @param components - the connected components of graph
+     */
+    public ClosenessCentrality(Graph<T> graph, ConnectedComponents<T> components){
+        this.graph = graph;
+        this.components = components;
+        findLargestComponent();
+    }
+
+    /**
+     * Marks the members of the largest connected component. Ties go to
+     * the component found first.
+     */
+    private void findLargestComponent(){
+        largestSize = components.getLargestComponentSize();
+        int largest = components.getLargestComponent();
+        inLargest = new boolean[graph.getNumVertices()];
+        for(int v = 0; v < inLargest.length; v++){
+            inLargest[v] = (components.getComponentOf(v) == largest);
+        }
+    }
+
+    /**
+     * Runs one Breadth-First Search from source and adds up its distance
+     * to every vertex reached, and the inverse of each of those distances.
+     *
+     * @param source - position of the vertex to start from
+     * @param buffers - scratch arrays of the calling thread
+     * @param sums - receives the sum of distances at position source
+     * @param harmonic - receives the sum of 1/distance at position source
+     */
+    void search(int source, Buffers buffers, long[] sums, double[] harmonic){
+        int[] distance = buffers.distance;
+        int[] queue = buffers.queue;
+        int head = 0;
+        int tail = 0;
+        long sum = 0;
+        double inverseSum = 0;
+        queue[tail++] = source;
+        distance[source] = 0;
+        while(head < tail){
+            int current = queue[head++];
+            if(current != source){
+                sum += distance[current];
+                inverseSum += 1.0 / distance[current];
+            }
+            for(int i = 0; i < graph.getNumSuccessors(current); i++){
+                int successor = graph.getSuccessor(current, i);
+                if(distance[successor] == -1){
+                    distance[successor] = distance[current] + 1;
+                    queue[tail++] = successor;
+                }
+            }
+        }
+        // only the reached vertices were touched, reset just those
+        for(int i = 0; i < tail; i++){
+            distance[queue[i]] = -1;
+        }
+        sums[source] = sum;
+        harmonic[source] = inverseSum;
+    }
+
+    /**
+     * Scratch arrays for the searches of one thread. The distance array
+     * is all -1 between searches.
+     */
+    class Buffers
+    {
+        int[] distance;
+        int[] queue;
+
+        Buffers(){
+            distance = new int[graph.getNumVertices()];
+            queue = new int[graph.getNumVertices()];
+            Arrays.fill(distance, -1);
+        }
+    }
+
+    /**
+     * Scores a range of the chosen sources, splitting it in half until
+     * each task has at most SOURCES_PER_TASK sources. Every source writes
+     * only its own slot of sums and harmonic, so tasks never conflict.
+     */
+    class ScoreTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        private IntList chosen;
+        private int from, to;
+        private long[] sums;
+        private double[] harmonic;
+        private ThreadLocal<Buffers> buffers;
+
+        ScoreTask(IntList chosen, int from, int to, long[] sums,
+                  double[] harmonic, ThreadLocal<Buffers> buffers){
+            this.chosen = chosen;
+            this.from = from;
+            this.to = to;
+            this.sums = sums;
+            this.harmonic = harmonic;
+            this.buffers = buffers;
+        }
+
+        protected void compute(){
+            if(to - from <= SOURCES_PER_TASK){
+                Buffers mine = buffers.get();
+                for(int i = from; i < to; i++){
+                    search(chosen.get(i), mine, sums, harmonic);
+                }
+            } else {
+                int middle = (from + to) / 2;
+                invokeAll(new ScoreTask(chosen, from, middle, sums, harmonic, buffers),
+                          new ScoreTask(chosen, middle, to, sums, harmonic, buffers));
+            }
+        }
+    }
+
+    /**
+     * Scores every chosen source, in this thread or across a pool.
+     *
+     * @param chosen - positions of the sources to score
+     * @param sums - receives the sum of distances of each source
+     * @param harmonic - receives the harmonic centrality of each source
+     * @param parallelism - number of threads to use, 1 to stay serial
+     */
+    private void score(IntList chosen, long[] sums, double[] harmonic, int parallelism){
+        if(parallelism <= 1){
+            Buffers buffers = new Buffers();
+            for(int i = 0; i < chosen.size(); i++){
+                search(chosen.get(i), buffers, sums, harmonic);
+            }
+            return;
+        }
+        ThreadLocal<Buffers> buffers = new ThreadLocal<Buffers>(){
+                protected Buffers initialValue(){
+                    return new Buffers();
+                }
+            };
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new ScoreTask(chosen, 0, chosen.size(), sums, harmonic, buffers));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Finds the positions of the given vertices, leaving out repeats and
+     * vertices that are not in the graph
+     *
+     * @param sources - the vertices to look up
+     * @param largestOnly - also leave out vertices outside the largest
+     *        connected component
+     * @return positions of the remaining vertices
+     */
+    private IntList choose(Collection<? extends T> sources, boolean largestOnly){
+        IntList chosen = new IntList(sources.size());
+        boolean[] isChosen = new boolean[graph.getNumVertices()];
+        for(T source : sources){
+            int index = graph.getIndex(source);
+            if(index != -1 && !isChosen[index] && (inLargest[index] || !largestOnly)){
+                isChosen[index] = true;
+                chosen.add(index);
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * Getter for the size of the largest connected component
+     *
+     * @return the number of vertices in the largest connected component
+     */
+    public int getLargestComponentSize(){
+        return largestSize;
+    }
+
+    /**
+     * Ranks the given vertices by closeness. Vertices that are not in the
+     * graph or not in its largest connected component are left out.
+     *
+     * @param sources - the vertices to rank
+     * @return the ranked vertices, most central first
+     */
+    public CentralityResult<T> rank(Collection<? extends T> sources){
+        return rank(sources, 1);
+    }
+
+    /**
+     * Ranks the given vertices by closeness, scoring them on several
+     * threads. Gives the same result as rank(sources).
+     *
+     * @param sources - the vertices to rank
+     * @param parallelism - number of threads to use
+     * @return the ranked vertices, most central first
+     */
+    public CentralityResult<T> rank(Collection<? extends T> sources, int parallelism){
+        IntList chosen = choose(sources, true);
+        long[] sums = new long[graph.getNumVertices()];
+        double[] harmonic = new double[graph.getNumVertices()];
+        score(chosen, sums, harmonic, parallelism);
+        return buildResult(chosen, sums, harmonic, false);
+    }
+
+    /**
+     * Ranks the given vertices by harmonic centrality, largest first.
+     * Unreachable vertices simply add nothing to the score, so vertices
+     * outside the largest connected component are ranked too.
+     *
+     * @param sources - the vertices to rank
+     * @param parallelism - number of threads to use, 1 to stay serial
+     * @return the ranked vertices, most central first
+     */
+    public CentralityResult<T> rankHarmonic(Collection<? extends T> sources, int parallelism){
+        IntList chosen = choose(sources, false);
+        long[] sums = new long[graph.getNumVertices()];
+        double[] harmonic = new double[graph.getNumVertices()];
+        score(chosen, sums, harmonic, parallelism);
+        return buildResult(chosen, sums, harmonic, true);
+    }
+
+    /**
+     * Puts scored vertices in rank order: smallest sum of distances (or
+     * largest harmonic centrality) first, ties broken by position in the
+     * graph.
+     *
+     * @param chosen - positions of the scored vertices
+     * @param sums - sum of distances, indexed by position in the graph
+     * @param harmonic - harmonic centrality, indexed by position
+     * @param byHarmonic - rank by harmonic instead of sum of distances
+     * @return the ranked vertices
+     */
+    private CentralityResult<T> buildResult(IntList chosen, final long[] sums,
+                                            final double[] harmonic,
+                                            final boolean byHarmonic){
+        Integer[] order = new Integer[chosen.size()];
+        for(int i = 0; i < order.length; i++){
+            order[i] = chosen.get(i);
+        }
+        Arrays.sort(order, new Comparator<Integer>(){
+                public int compare(Integer a, Integer b){
+                    if(byHarmonic && harmonic[a] != harmonic[b]){
+                        return (harmonic[a] > harmonic[b]) ? -1 : 1;
+                    }
+                    if(!byHarmonic && sums[a] != sums[b]){
+                        return (sums[a] < sums[b]) ? -1 : 1;
+                    }
+                    return a.compareTo(b);
+                }
+            });
+
+        ArrayList<T> ranked = new ArrayList<T>(order.length);
+        long[] rankedSums = new long[order.length];
+        double[] rankedHarmonic = new double[order.length];
+        int[] rankedSizes = new int[order.length];
+        for(int r = 0; r < order.length; r++){
+            ranked.add(graph.getVertex(order[r]));
+            rankedSums[r] = sums[order[r]];
+            rankedHarmonic[r] = harmonic[order[r]];
+            rankedSizes[r] = components.getComponentSize(components.getComponentOf(order[r]));
+        }
+        return new CentralityResult<T>(ranked, rankedSums, rankedHarmonic,
+                                       rankedSizes, largestSize, byHarmonic);
+    }
+
+    /**
+     * Main method for testing
+     */
+    public static void main(String[] args){
+        System.out.println("***TESTING ClosenessCentrality***");
+        // path A-B-C and a separate edge D-E
+        AdjListsGraph<String> graph = new AdjListsGraph<String>();
+        graph.addVertex("A");
+        graph.addVertex("B");
+        graph.addVertex("C");
+        graph.addVertex("D");
+        graph.addVertex("E");
+        graph.addEdge("A", "B");
+        graph.addEdge("B", "C");
+        graph.addEdge("D", "E");
+        CsrGraph<String> frozen = graph.freeze();
+        ClosenessCentrality<String> closeness = 
+            new ClosenessCentrality<String>(frozen, frozen.getComponents());
+
+        CentralityResult<String> ranked = closeness.rank(graph.getVertices(), 1);
+        System.out.println("ranked--> expected: [B, A, C], actual: [" + ranked.getVertex(0) +
+                           ", " + ranked.getVertex(1) + ", " + ranked.getVertex(2) + "]");
+        System.out.println("B closeness--> expected: 1.0, actual: " + ranked.getCloseness(0));
+        System.out.println("B score--> expected: 1.0, actual: " + ranked.getScore(0));
+
+        CentralityResult<String> harmonic = closeness.rankHarmonic(graph.getVertices(), 2);
+        System.out.println("harmonic size--> expected: 5, actual: " + harmonic.size());
+        System.out.println("harmonic A score--> expected: 1.5, actual: " + harmonic.getScore(1));
+        // D only reaches E, so it is normalised by its own component
+        System.out.println("harmonic D closeness--> expected: 1.0, actual: " + 
+                           harmonic.getCloseness(3));
+        System.out.println("harmonic D score--> expected: 1.0, actual: " + harmonic.getScore(3));
+    }
+}
@@ -0,0 +1,153 @@
+package javafoundations;
+import java.util.Arrays;
+
+/**
+ * The connected components of a graph, found in one linear pass that
+ * labels every vertex with the id of its component. After that pass,
+ * which component a vertex is in and how large that component is are
+ * both constant time lookups.
+ *
+ * The graph is treated as undirected: components are found by following
+ * successors, which for graphs built with addEdge are also the
+ * predecessors. Components are numbered in the order of their first
+ * vertex, so the ids are the same on every run.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class ConnectedComponents<T>
+{
+    // instance variables
+    private Graph<T> graph;
+    private int[] component; // component[i] is the id of vertex i's component
+    private IntList sizes; // sizes.get(c) is the number of vertices in c
+    private int largest; // id of the largest component, -1 if no vertices
+
+    /**
+     * Constructor, labels every vertex of the graph. Later changes to the
+     * graph are not reflected.
+     *
+     * @param graph - the graph to split into components
+     */
+    public ConnectedComponents(Graph<T> graph){
+        this.graph = graph;
+        int n = graph.getNumVertices();
+        component = new int[n];
+        Arrays.fill(component, -1);
+        sizes = new IntList();
+        largest = -1;
+        int[] queue = new int[n];
+        for(int v = 0; v < n; v++){
+            if(component[v] == -1){
+                int size = label(v, sizes.size(), queue);
+                // ties go to the component found first
+                if(largest == -1 || size > sizes.get(largest)){
+                    largest = sizes.size();
+                }
+                sizes.add(size);
+            }
+        }
+    }
+
+    /**
+     * Gives every unlabeled vertex reachable from start the same id with
+     * a Breadth-First Search
+     *
+     * @return the number of vertices labeled
+     */
+    private int label(int start, int id, int[] queue){
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        component[start] = id;
+        while(head < tail){
+            int current = queue[head++];
+            for(int i = 0; i < graph.getNumSuccessors(current); i++){
+                int successor = graph.getSuccessor(current, i);
+                if(component[successor] == -1){
+                    component[successor] = id;
+                    queue[tail++] = successor;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Getter for the number of components
+     *
+     * @return the number of connected components
+     */
+    public int getNumComponents(){
+        return sizes.size();
+    }
+
+    /**
+     * Getter for the component of the vertex at a position
+     *
+     * @param index - position of the vertex in the graph
+     * @return id of its component, from 0 to getNumComponents() - 1
+     */
+    public int getComponentOf(int index){
+        return component[index];
+    }
+
+    /**
+     * Getter for the component of a vertex
+     *
+     * @param vertex - a vertex of the graph
+     * @return id of its component, or -1 if the vertex is not in the graph
+     */
+    public int getComponent(T vertex){
+        int index = graph.getIndex(vertex);
+        return (index == -1) ? -1 : component[index];
+    }
+
+    /**
+     * Getter for the size of a component
+     *
+     * @param id - id of the component
+     * @return the number of vertices in it
+     */
+    public int getComponentSize(int id){
+        return sizes.get(id);
+    }
+
+    /**
+     * Getter for the size of the component holding a vertex
+     *
+     * @param vertex - a vertex of the graph
+     * @return the size of its component, or 0 if it is not in the graph
+     */
+    public int getComponentSizeOf(T vertex){
+        int id = getComponent(vertex);
+        return (id == -1) ? 0 : sizes.get(id);
+    }
+
+    /**
+     * Getter for the largest component
+     *
+     * @return id of the largest component, -1 if the graph is empty
+     */
+    public int getLargestComponent(){
+        return largest;
+    }
+
+    /**
+     * Getter for the size of the largest component
+     *
+     * @return number of vertices in the largest component, 0 if empty
+     */
+    public int getLargestComponentSize(){
+        return (largest == -1) ? 0 : sizes.get(largest);
+    }
+
+    /**
+     * Returns the size of every component
+     *
+     * @return array whose entry c is the size of component c
+     */
+    public int[] getComponentSizes(){
+        return sizes.toArray();
+    }
+}
@@ -0,0 +1,463 @@
+package javafoundations;
+import java.util.LinkedList;
+import java.util.HashMap;
+import java.util.Arrays;
+import java.util.List;
+import java.io.*;
+
+/**
+ * An immutable snapshot of a graph in compressed sparse row form. The
+ * successors of vertex i are targets[offsets[i]] up to (but not including)
+ * targets[offsets[i + 1]], stored as indices into the vertex table, so
+ * traversals run over primitive arrays instead of linked lists.
+ *
+ * Snapshots are created with AdjListsGraph.freeze(). Methods that would
+ * change the graph throw an UnsupportedOperationException.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class CsrGraph<T> implements Graph<T>
+{
+    // instance variables
+    private T[] vertices; // interned vertex table
+    private HashMap<T, Integer> indices; // vertex -> position in vertices
+    private int[] offsets; // start of each vertex's successors in targets,
+    // offsets[vertices.length] is the number of arcs
+    private int[] targets; // successor indices, grouped by origin vertex
+    private int[] weights; // weight of each arc, parallel to targets, or null
+    private ConnectedComponents<T> components; // found on first request
+
+    /**
+     * Constructor. The arrays are used as given, not copied.
+     *
+     * @param vertices - vertex table, position i holds vertex i
+     * @param offsets - vertices.length + 1 row offsets into targets
+     * @param targets - successor indices grouped by origin vertex
+     */
+    CsrGraph(T[] vertices, int[] offsets, int[] targets){
+        this(vertices, offsets, targets, null);
+    }
+
+    /**
+     * Constructor for a weighted graph. The arrays are used as given, not
+     * copied.
+     *
+     * @param vertices - vertex table, position i holds vertex i
+     * @param offsets - vertices.length + 1 row offsets into targets
+     * @param targets - successor indices grouped by origin vertex
+     * @param weights - weights[a] is the weight of the arc to targets[a],
+     *                  or null if every arc weighs 1
+     */
+    CsrGraph(T[] vertices, int[] offsets, int[] targets, int[] weights){
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        indices = new HashMap<T, Integer>();
+        for(int i = 0; i < vertices.length; i++){
+            indices.put(vertices[i], i);
+        }
+    }
+
+    /**
+     * Copies a list of vertices into a vertex table for the constructor.
+     * The table only ever holds elements of the list, so the cast is safe.
+     *
+     * @param vertices - the vertices, in position order
+     * @return a new array holding the same vertices
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T[] toTable(List<T> vertices){
+        return (T[]) vertices.toArray();
+    }
+
+    /**
+     * Looks up the position of a vertex in the vertex table
+     *
+     * @param vertex - the vertex to look up
+     * @return index of the vertex, or -1 if it is not in the graph
+     */
+    public int getIndex(T vertex){
+        Integer index = indices.get(vertex);
+        return (index == null) ? -1 : index;
+    }
+
+    /**
+     * Getter for the vertex stored at a position of the vertex table
+     *
+     * @param index - position of the vertex
+     * @return the vertex
+     */
+    public T getVertex(int index){
+        return vertices[index];
+    }
+
+    /**
+     * Getter for the number of successors of a vertex
+     *
+     * @param index - position of the vertex
+     * @return number of arcs leaving the vertex
+     */
+    public int getNumSuccessors(int index){
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * Getter for one successor of a vertex, without allocating
+     *
+     * @param index - position of the vertex
+     * @param i - which successor, from 0 to getNumSuccessors(index) - 1
+     * @return position of the i-th successor
+     */
+    public int getSuccessor(int index, int i){
+        return targets[offsets[index] + i];
+    }
+
+    /**
+     * Getter for the weight of the arc to one successor of a vertex
+     *
+     * @param index - position of the vertex
+     * @param i - which successor, from 0 to getNumSuccessors(index) - 1
+     * @return the weight of the arc, 1 if the graph is not weighted
+     */
+    public int getWeight(int index, int i){
+        return (weights == null) ? 1 : weights[offsets[index] + i];
+    }
+
+    /**
+     * Returns true if the arcs of this graph have weights
+     *
+     * @return true if the graph was made with weights, false otherwise
+     */
+    public boolean isWeighted(){
+        return weights != null;
+    }
+
+    /**
+     * Returns the connected components of this graph, found in one
+     * linear pass the first time they are asked for
+     *
+     * @return component id and component size of every vertex
+     */
+    public ConnectedComponents<T> getComponents(){
+        if(components == null){
+            components = new ConnectedComponents<T>(this);
+        }
+        return components;
+    }
+
+    /**
+     * Conducts a Breadth-First Search. Never visists a vertex more than once
+     *
+     * @param startVertex - vertex that the BFS will begin on
+     * @return the vertices in the order they were visited
+     * */
+    public LinkedList<T> BFS(T startVertex){
+        LinkedList<T> iter = new LinkedList<T>();
+        int start = getIndex(startVertex);
+        // early return if the start vertex doesn't exist
+        if(start == -1){
+            return iter;
+        }
+
+        int[] queue = new int[vertices.length];
+        boolean[] visited = new boolean[vertices.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = true;
+        while(head < tail){
+            int current = queue[head++];
+            for(int a = offsets[current]; a < offsets[current + 1]; a++){
+                int successor = targets[a];
+                if(!visited[successor]){
+                    visited[successor] = true;
+                    queue[tail++] = successor;
+                }
+            }
+            iter.add(vertices[current]);
+        }
+        return iter;
+    }
+
+    /**
+     * Conducts a Breadth-First Search to find a given vertex. Never visists
+     * a vertex more than once
+     *
+     * @param origin - vertex that the BFS will begin on
+     * @param destination - vertex at which the BFS stops
+     * @return the vertices visited up to and including the destination
+     * */
+    public LinkedList<T> BFSFind(T origin, T destination){
+        LinkedList<T> iter = new LinkedList<T>();
+        int start = getIndex(origin);
+        // early return if the start vertex doesn't exist or if origin
+        // vertex is same as destination
+        if(start == -1 || origin.equals(destination)){
+            return iter;
+        }
+
+        int end = getIndex(destination);
+        int[] queue = new int[vertices.length];
+        boolean[] visited = new boolean[vertices.length];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        visited[start] = true;
+        while(head < tail){
+            int current = queue[head++];
+            iter.add(vertices[current]);
+            if(current == end){
+                return iter; // destination found
+            }
+            for(int a = offsets[current]; a < offsets[current + 1]; a++){
+                int successor = targets[a];
+                if(!visited[successor]){
+                    visited[successor] = true;
+                    queue[tail++] = successor;
+                }
+            }
+        }
+        return iter;
+    }
+
+    /**
+     * Conducts a Depth-First Search by visiting all the vertices that it
+     * can reach starting at some vertex. Never visists a vertex more than once
+     *
+     * @param startVertex - vertex that the DFS will begin on
+     * @return the vertices in the order they were visited
+     * */
+    public LinkedList<T> DFS(T startVertex){
+        LinkedList<T> iter = new LinkedList<T>();
+        int start = getIndex(startVertex);
+        // early return if the start vertex doesn't exist
+        if(start == -1){
+            return iter;
+        }
+
+        // stack of vertices, next[v] remembers how far through the
+        // successors of v the search has got
+        int[] stack = new int[vertices.length];
+        int[] next = new int[vertices.length];
+        boolean[] visited = new boolean[vertices.length];
+        int top = 0;
+        stack[top++] = start;
+        next[start] = offsets[start];
+        visited[start] = true;
+        iter.add(startVertex);
+        while(top > 0){
+            int current = stack[top - 1];
+            if(next[current] == offsets[current + 1]){
+                top--; // no unvisited successors left
+            } else {
+                int successor = targets[next[current]++];
+                if(!visited[successor]){
+                    visited[successor] = true;
+                    next[successor] = offsets[successor];
+                    stack[top++] = successor;
+                    iter.add(vertices[successor]);
+                }
+            }
+        }
+        return iter;
+    }
+
+    /**
+     * Returns a boolean indicating whether this graph is empty.
+     *
+     * @return true if this graph has no vertices, false otherwise.
+     */
+    public boolean isEmpty(){
+        return vertices.length == 0;
+    }
+
+    /**
+     * Getter for number of vertices in the graph
+     *
+     * @return the number of vertices in this graph
+     */
+    public int getNumVertices(){
+        return vertices.length;
+    }
+
+    /**
+     * Getter for number of arcs in graph
+     *
+     * @return the number of arcs in this graph
+     */
+    public int getNumArcs(){
+        return targets.length;
+    }
+
+    /**
+     * Determines if an arc (direct connection) exists between the
+     * first and second vertex.
+     *
+     * @return true or false
+     */
+    public boolean isArc(T vertex1, T vertex2){
+        int from = getIndex(vertex1);
+        int to = getIndex(vertex2);
+        if(from == -1 || to == -1){
+            return false;
+        }
+        for(int a = offsets[from]; a < offsets[from + 1]; a++){
+            if(targets[a] == to){
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines if an edge exists between the vertex1 and vertex2
+     *
+     * @return true or false
+     */
+    public boolean isEdge(T vertex1, T vertex2){
+        return isArc(vertex1, vertex2) && isArc(vertex2, vertex1);
+    }
+
+    /**
+     * Returns true if for every arc the opposite arc is also present
+     *
+     * @return true if the graph is undirected, false otherwise
+     */
+    public boolean isUndirected(){
+        for(int i = 0; i < vertices.length; i++){
+            for(int a = offsets[i]; a < offsets[i + 1]; a++){
+                if(!isArc(vertices[targets[a]], vertices[i])){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Not supported, a snapshot cannot be changed
+     */
+    public void addVertex(T vertex){
+        throw new UnsupportedOperationException("CsrGraph is read-only");
+    }
+
+    /**
+     * Not supported, a snapshot cannot be changed
+     */
+    public void removeVertex(T vertex){
+        throw new UnsupportedOperationException("CsrGraph is read-only");
+    }
+
+    /**
+     * Not supported, a snapshot cannot be changed
+     */
+    public void addArc(T vertex1, T vertex2){
+        throw new UnsupportedOperationException("CsrGraph is read-only");
+    }
+
+    /**
+     * Not supported, a snapshot cannot be changed
+     */
+    public void removeArc(T vertex1, T vertex2){
+        throw new UnsupportedOperationException("CsrGraph is read-only");
+    }
+
+    /**
+     * Not supported, a snapshot cannot be changed
+     */
+    public void addEdge(T vertex1, T vertex2){
+        throw new UnsupportedOperationException("CsrGraph is read-only");
+    }
+
+    /**
+     * Not supported, a snapshot cannot be changed
+     */
+    public void removeEdge(T vertex1, T vertex2){
+        throw new UnsupportedOperationException("CsrGraph is read-only");
+    }
+
+    /**
+     * Return all the vertices, in this graph, adjacent to the given
+     * vertex.
+     *
+     * @param A vertex in the graph whose successors will be returned.
+     * @return A new LinkedList containing the successors of the vertex
+     */
+    public LinkedList<T> getSuccessors(T vertex){
+        int index = getIndex(vertex);
+        LinkedList<T> successors = new LinkedList<T>();
+        for(int a = offsets[index]; a < offsets[index + 1]; a++){
+            successors.add(vertices[targets[a]]);
+        }
+        return successors;
+    }
+
+    /**
+     * Return all the vertices x, in this graph, that precede a given
+     * vertex.
+     *
+     * @param A vertex in the graph whose predecessors will be returned.
+     * @return LinkedList containing all the vertices x in the graph,
+     * for which an arc exists from x to the given vertex (x -> vertex).
+     */
+    public LinkedList<T> getPredecessors(T vertex){
+        int index = getIndex(vertex);
+        LinkedList<T> predecessors = new LinkedList<T>();
+        for(int i = 0; i < vertices.length; i++){
+            for(int a = offsets[i]; a < offsets[i + 1]; a++){
+                if(targets[a] == index){
+                    predecessors.add(vertices[i]);
+                    break;
+                }
+            }
+        }
+        return predecessors;
+    }
+
+    /**
+     * Writes this graph into a file in the TGF format.
+     *
+     * @param the name of the file where this graph will be written
+     * in the TGF format.
+     * */
+    public void saveToTGF(String tgf_file_name){
+        try {
+            PrintWriter writer = new PrintWriter(new BufferedWriter(
+                new FileWriter(tgf_file_name)));
+            // add 1 to index so vertices begin from 1 not 0
+            for(int i = 0; i < vertices.length; i++){
+                writer.println(i + 1 + " " + vertices[i]);
+            }
+            writer.println("#");
+            for(int i = 0; i < vertices.length; i++){
+                for(int a = offsets[i]; a < offsets[i + 1]; a++){
+                    // a weight is written as the label of its arc
+                    writer.println(i + 1 + " " + (targets[a] + 1) + 
+                                   ((weights == null) ? "" : " " + weights[a]));
+                }
+            }
+            writer.close();
+        } catch (IOException ex){
+            System.out.println(ex);
+        }
+    }
+
+    /**
+     * Returns a string representation of this graph, containing its
+     * vertices and arcs
+     *
+     * @return String
+     */
+    public String toString(){
+        StringBuilder ret = new StringBuilder("Vertices: \n");
+        ret.append(Arrays.toString(vertices));
+        ret.append("\nEdges: ");
+        for(int i = 0; i < vertices.length; i++){
+            ret.append("\nfrom " + vertices[i] + ": ");
+            ret.append(getSuccessors(vertices[i]));
+        }
+        return ret.toString();
+    }
+}
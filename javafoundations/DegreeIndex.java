@@ -0,0 +1,220 @@
+package javafoundations;
+import java.util.Arrays;
+import java.util.Vector;
+
+/**
+ * Keeps the degree of every vertex of a graph, numbered 0 to size() - 1,
+ * and a bucket for every degree holding the vertices that have it. A
+ * degree changes by one at a time, which moves a vertex to the next
+ * bucket up or down in constant time, so the histogram of degrees and the
+ * highest degree are always known without looking at the whole graph.
+ *
+ * The graph that owns the index updates it; everyone else can only read.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class DegreeIndex
+{
+    private final int DEFAULT_CAPACITY = 16;
+    private int count; // number of vertices
+    private int[] degree; // degree of each vertex
+    private int[] position; // where each vertex sits in its bucket
+    private Vector<IntList> buckets; // buckets.get(d) holds the vertices of degree d
+    private int maxDegree;
+
+    /**
+     * Constructor
+     * Creates an index of no vertices.
+     */
+    public DegreeIndex(){
+        degree = new int[DEFAULT_CAPACITY];
+        position = new int[DEFAULT_CAPACITY];
+        buckets = new Vector<IntList>();
+        buckets.add(new IntList());
+        count = maxDegree = 0;
+    }
+
+    /**
+     * Adds a vertex of degree 0
+     *
+     * @return the new vertex, equal to the old size()
+     */
+    int add(){
+        if(count == degree.length){
+            degree = Arrays.copyOf(degree, count * 2);
+            position = Arrays.copyOf(position, count * 2);
+        }
+        degree[count] = 0;
+        position[count] = buckets.get(0).size();
+        buckets.get(0).add(count);
+        return count++;
+    }
+
+    /**
+     * Raises the degree of a vertex by one
+     */
+    void increment(int vertex){
+        int d = degree[vertex];
+        leaveBucket(vertex);
+        if(d + 1 == buckets.size()){
+            buckets.add(new IntList());
+        }
+        joinBucket(vertex, d + 1);
+        maxDegree = Math.max(maxDegree, d + 1);
+    }
+
+    /**
+     * Lowers the degree of a vertex by one
+     */
+    void decrement(int vertex){
+        int d = degree[vertex];
+        if(d == 0){
+            throw new IllegalStateException("degree of " + vertex + " is already 0");
+        }
+        leaveBucket(vertex);
+        joinBucket(vertex, d - 1);
+        // the vertex is now in bucket d - 1, so the walk stops there
+        while(maxDegree > 0 && buckets.get(maxDegree).isEmpty()){
+            maxDegree--;
+        }
+    }
+
+    /**
+     * Removes a vertex by moving the last vertex, with its degree, into
+     * its place
+     *
+     * @param vertex - from 0 to size() - 1
+     */
+    void remove(int vertex){
+        int last = count - 1;
+        leaveBucket(vertex);
+        if(vertex != last){
+            int d = degree[last];
+            leaveBucket(last);
+            joinBucket(vertex, d);
+        }
+        count--;
+        while(maxDegree > 0 && buckets.get(maxDegree).isEmpty()){
+            maxDegree--;
+        }
+    }
+
+    /**
+     * Takes a vertex out of its bucket by moving the bucket's last vertex
+     * into its place
+     */
+    private void leaveBucket(int vertex){
+        IntList bucket = buckets.get(degree[vertex]);
+        int last = bucket.get(bucket.size() - 1);
+        bucket.set(position[vertex], last);
+        position[last] = position[vertex];
+        bucket.remove(bucket.size() - 1);
+    }
+
+    private void joinBucket(int vertex, int d){
+        IntList bucket = buckets.get(d);
+        degree[vertex] = d;
+        position[vertex] = bucket.size();
+        bucket.add(vertex);
+    }
+
+    /**
+     * Replaces the whole index with vertices 0 to n - 1 of the given 
+     * degrees, filling each bucket once instead of moving vertices up one 
+     * degree at a time
+     *
+     * @param degrees - degrees[v] is the degree of vertex v
+     * @param n - number of vertices
+     */
+    void reset(int[] degrees, int n){
+        count = n;
+        degree = Arrays.copyOf(degrees, Math.max(n, DEFAULT_CAPACITY));
+        position = new int[degree.length];
+        maxDegree = 0;
+        for(int v = 0; v < n; v++){
+            maxDegree = Math.max(maxDegree, degrees[v]);
+        }
+        int[] histogram = new int[maxDegree + 1];
+        for(int v = 0; v < n; v++){
+            histogram[degrees[v]]++;
+        }
+        buckets = new Vector<IntList>(maxDegree + 1);
+        for(int d = 0; d <= maxDegree; d++){
+            buckets.add(new IntList(Math.max(histogram[d], 1)));
+        }
+        for(int v = 0; v < n; v++){
+            IntList bucket = buckets.get(degrees[v]);
+            position[v] = bucket.size();
+            bucket.add(v);
+        }
+    }
+
+    /**
+     * Returns the number of vertices
+     *
+     * @return the number of vertices indexed
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Getter for the degree of a vertex
+     *
+     * @param vertex - from 0 to size() - 1
+     * @return the degree of the vertex
+     */
+    public int getDegree(int vertex){
+        if(vertex < 0 || vertex >= count){
+            throw new IndexOutOfBoundsException("vertex " + vertex + ", size " + count);
+        }
+        return degree[vertex];
+    }
+
+    /**
+     * Getter for the highest degree of any vertex
+     *
+     * @return the highest degree, 0 if there are no vertices
+     */
+    public int getMaxDegree(){
+        return maxDegree;
+    }
+
+    /**
+     * Returns how many vertices have a degree
+     *
+     * @param d - the degree
+     * @return the number of vertices of degree d
+     */
+    public int getNumWithDegree(int d){
+        return (d < 0 || d >= buckets.size()) ? 0 : buckets.get(d).size();
+    }
+
+    /**
+     * Getter for one of the vertices of a degree. The vertices of a
+     * bucket are in no particular order, and the order changes as degrees
+     * change.
+     *
+     * @param d - the degree
+     * @param i - from 0 to getNumWithDegree(d) - 1
+     * @return a vertex of degree d
+     */
+    public int getWithDegree(int d, int i){
+        return buckets.get(d).get(i);
+    }
+
+    /**
+     * Returns the histogram of degrees
+     *
+     * @return array whose entry d is the number of vertices of degree d,
+     *         from 0 to getMaxDegree()
+     */
+    public int[] getHistogram(){
+        int[] histogram = new int[maxDegree + 1];
+        for(int d = 0; d <= maxDegree; d++){
+            histogram[d] = buckets.get(d).size();
+        }
+        return histogram;
+    }
+}
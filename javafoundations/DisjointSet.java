@@ -0,0 +1,150 @@
+package javafoundations;
+import java.util.Arrays;
+
+/**
+ * A disjoint set (union-find) over the ints 0 to size() - 1, with path
+ * compression and union by rank, so any sequence of operations runs in
+ * nearly constant time per operation. It also keeps the number of sets
+ * and the size of the largest set up to date, so both can be read at any
+ * point while elements are being merged.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class DisjointSet
+{
+    private final int DEFAULT_CAPACITY = 16;
+    private int count; // number of elements
+    private int[] parent; // parent[i] == i for the root of a set
+    private byte[] rank; // upper bound on the height of each root's tree
+    private int[] size; // number of elements in each root's set
+    private int numSets;
+    private int largestSize;
+
+    /**
+     * Constructor
+     * Creates a disjoint set with no elements.
+     */
+    public DisjointSet(){
+        parent = new int[DEFAULT_CAPACITY];
+        rank = new byte[DEFAULT_CAPACITY];
+        size = new int[DEFAULT_CAPACITY];
+        count = numSets = largestSize = 0;
+    }
+
+    /**
+     * Adds a new element in a set of its own, expanding the capacity of
+     * the arrays if necessary.
+     *
+     * @return the new element, equal to the old size()
+     */
+    public int add(){
+        if(count == parent.length){
+            parent = Arrays.copyOf(parent, count * 2);
+            rank = Arrays.copyOf(rank, count * 2);
+            size = Arrays.copyOf(size, count * 2);
+        }
+        parent[count] = count;
+        rank[count] = 0;
+        size[count] = 1;
+        numSets++;
+        largestSize = Math.max(largestSize, 1);
+        return count++;
+    }
+
+    /**
+     * Returns the representative of the set holding an element, pointing
+     * every element on the way straight at it
+     *
+     * @param element - from 0 to size() - 1
+     * @return the root of the element's set
+     */
+    public int find(int element){
+        int root = element;
+        while(parent[root] != root){
+            root = parent[root];
+        }
+        // path compression
+        while(parent[element] != root){
+            int next = parent[element];
+            parent[element] = root;
+            element = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merges the sets holding two elements, hanging the shorter tree
+     * under the taller one
+     *
+     * @param a - an element
+     * @param b - another element
+     * @return true if two different sets were merged, false if the
+     *         elements were already in the same set
+     */
+    public boolean union(int a, int b){
+        int rootA = find(a);
+        int rootB = find(b);
+        if(rootA == rootB){
+            return false;
+        }
+        if(rank[rootA] < rank[rootB]){
+            int temp = rootA;
+            rootA = rootB;
+            rootB = temp;
+        } else if(rank[rootA] == rank[rootB]){
+            rank[rootA]++;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        numSets--;
+        largestSize = Math.max(largestSize, size[rootA]);
+        return true;
+    }
+
+    /**
+     * Returns true if two elements are in the same set
+     *
+     * @return true if a and b are in the same set, false otherwise
+     */
+    public boolean connected(int a, int b){
+        return find(a) == find(b);
+    }
+
+    /**
+     * Returns the size of the set holding an element
+     *
+     * @param element - from 0 to size() - 1
+     * @return the number of elements in its set
+     */
+    public int getSetSize(int element){
+        return size[find(element)];
+    }
+
+    /**
+     * Returns the number of elements
+     *
+     * @return the number of elements added so far
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Returns the number of disjoint sets
+     *
+     * @return the number of sets
+     */
+    public int getNumSets(){
+        return numSets;
+    }
+
+    /**
+     * Returns the size of the largest set
+     *
+     * @return the number of elements in the largest set, 0 if empty
+     */
+    public int getLargestSetSize(){
+        return largestSize;
+    }
+}
@@ -134,6 +134,42 @@ public interface Graph<T>
      * */
     public LinkedList<T> getSuccessors(T vertex);
 
+    /** 
+     * Returns the position of a vertex in this graph. Positions run from
+     * 0 to getNumVertices() - 1 and are used by the index based methods
+     * below, which let traversals walk the graph without allocating.
+     * 
+     * @param the vertex to look up
+     * @return the position of the vertex, or -1 if it is not in the graph
+     * */
+    public int getIndex(T vertex);
+
+    /** 
+     * Returns the vertex at a given position of this graph.
+     * 
+     * @param a position from 0 to getNumVertices() - 1
+     * @return the vertex at that position
+     * */
+    public T getVertex(int index);
+
+    /** 
+     * Returns the number of successors of the vertex at a given position.
+     * 
+     * @param the position of a vertex in the graph
+     * @return the number of arcs leaving that vertex
+     * */
+    public int getNumSuccessors(int index);
+
+    /** 
+     * Returns the position of one successor of the vertex at a given
+     * position, without allocating a list of successors.
+     * 
+     * @param the position of a vertex in the graph
+     * @param which successor, from 0 to getNumSuccessors(index) - 1
+     * @return the position of that successor
+     * */
+    public int getSuccessor(int index, int i);
+
     /** 
      * Return all the vertices x, in this graph, that precede a given
      * vertex.
@@ -0,0 +1,303 @@
+package javafoundations;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Vector;
+
+/**
+ * Builds an AdjListsGraph (or a CsrGraph) from a large number of arcs at
+ * once. Vertices are interned as they are added and referred to by index
+ * from then on, and arcs are only buffered in primitive arrays, one at a
+ * time or in batches, with no duplicate checks. build() then sorts the
+ * arcs by origin, drops duplicates and makes every adjacency list in one
+ * pass at exactly the size it needs.
+ *
+ * The successors of each vertex keep the order their arcs were first
+ * added in, so the graph is the same as one made by calling addVertex and
+ * addArc on an AdjListsGraph in the same order. A disjoint set is merged
+ * as arcs come in, so the number of connected components can be watched
+ * while a load is running.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class GraphBuilder<T>
+{
+    private Vector<T> vertices;
+    private HashMap<T, Integer> indices; // position of each vertex in vertices
+    private IntList origins; // origins.get(i) -> targets.get(i) is the i-th arc
+    private IntList targets;
+    private DisjointSet connectivity;
+
+    /**
+     * Constructor
+     * Creates a builder with no vertices or arcs.
+     */
+    public GraphBuilder(){
+        vertices = new Vector<T>();
+        indices = new HashMap<T, Integer>();
+        origins = new IntList();
+        targets = new IntList();
+        connectivity = new DisjointSet();
+    }
+
+    /**
+     * Constructor
+     * Creates a builder that starts with the vertices and arcs of a graph,
+     * at the same positions, so more can be added to it in bulk.
+     *
+     * @param graph - the graph to start from, which is not changed
+     */
+    public GraphBuilder(Graph<T> graph){
+        this();
+        for(int i = 0; i < graph.getNumVertices(); i++){
+            addVertex(graph.getVertex(i));
+        }
+        for(int i = 0; i < graph.getNumVertices(); i++){
+            for(int j = 0; j < graph.getNumSuccessors(i); j++){
+                addArc(i, graph.getSuccessor(i, j));
+            }
+        }
+    }
+
+    /**
+     * Adds a vertex, or finds it if it was already added
+     *
+     * @param vertex - the vertex
+     * @return the position of the vertex in the graph being built
+     */
+    public int addVertex(T vertex){
+        Integer index = indices.get(vertex);
+        if(index != null){
+            return index;
+        }
+        int added = vertices.size();
+        indices.put(vertex, added);
+        vertices.add(vertex);
+        connectivity.add();
+        return added;
+    }
+
+    /**
+     * Looks up the position of a vertex
+     *
+     * @param vertex - the vertex to look up
+     * @return index of the vertex, or -1 if it was not added
+     */
+    public int getIndex(T vertex){
+        Integer index = indices.get(vertex);
+        return (index == null) ? -1 : index;
+    }
+
+    /**
+     * Buffers an arc between two vertices. Duplicates are dropped by
+     * build().
+     *
+     * @param origin - position of the origin
+     * @param destination - position of the destination
+     */
+    public void addArc(int origin, int destination){
+        if(origin < 0 || origin >= vertices.size() ||
+           destination < 0 || destination >= vertices.size()){
+            throw new IndexOutOfBoundsException("arc " + origin + " -> " +
+                destination + ", vertices: " + vertices.size());
+        }
+        origins.add(origin);
+        targets.add(destination);
+        connectivity.union(origin, destination);
+    }
+
+    /**
+     * Buffers the arcs both ways between two vertices
+     *
+     * @param vertex1 - position of one vertex
+     * @param vertex2 - position of the other vertex
+     */
+    public void addEdge(int vertex1, int vertex2){
+        addArc(vertex1, vertex2);
+        addArc(vertex2, vertex1);
+    }
+
+    /**
+     * Buffers a batch of arcs, from[offset + i] -> to[offset + i]
+     *
+     * @param from - positions of the origins
+     * @param to - positions of the destinations
+     * @param offset - where the batch starts in both arrays
+     * @param length - number of arcs in the batch
+     */
+    public void addArcs(int[] from, int[] to, int offset, int length){
+        for(int i = offset; i < offset + length; i++){
+            addArc(from[i], to[i]);
+        }
+    }
+
+    /**
+     * Buffers a batch of edges, the arcs both ways between a[offset + i]
+     * and b[offset + i]
+     *
+     * @param a - positions of one end of each edge
+     * @param b - positions of the other end
+     * @param offset - where the batch starts in both arrays
+     * @param length - number of edges in the batch
+     */
+    public void addEdges(int[] a, int[] b, int offset, int length){
+        for(int i = offset; i < offset + length; i++){
+            addEdge(a[i], b[i]);
+        }
+    }
+
+    /**
+     * Getter for the number of vertices added
+     */
+    public int getNumVertices(){
+        return vertices.size();
+    }
+
+    /**
+     * Getter for the number of arcs buffered, counting duplicates
+     */
+    public int getNumArcsAdded(){
+        return origins.size();
+    }
+
+    /**
+     * Getter for the number of connected components of the arcs added
+     * so far
+     */
+    public int getNumComponents(){
+        return connectivity.getNumSets();
+    }
+
+    /**
+     * Getter for the size of the largest connected component of the arcs
+     * added so far
+     */
+    public int getLargestComponentSize(){
+        return connectivity.getLargestSetSize();
+    }
+
+    /**
+     * Sorts the buffered arcs by origin with a counting sort, which keeps
+     * the arcs of each origin in the order they were added, then drops
+     * repeated arcs, keeping the first.
+     *
+     * @param offsets - filled so the successors of i are between
+     *                  offsets[i] and offsets[i + 1] of the result
+     * @return the successors of every vertex, one after the other
+     */
+    private int[] sortArcs(int[] offsets){
+        int n = vertices.size();
+        int m = origins.size();
+        int[] start = new int[n + 1];
+        for(int i = 0; i < m; i++){
+            start[origins.get(i) + 1]++;
+        }
+        for(int v = 0; v < n; v++){
+            start[v + 1] += start[v];
+        }
+        int[] sorted = new int[m];
+        int[] next = Arrays.copyOf(start, n);
+        for(int i = 0; i < m; i++){
+            sorted[next[origins.get(i)]++] = targets.get(i);
+        }
+
+        // seen[t] == v + 1 once v -> t has been kept
+        int[] seen = new int[n];
+        int kept = 0;
+        for(int v = 0; v < n; v++){
+            offsets[v] = kept;
+            for(int i = start[v]; i < start[v + 1]; i++){
+                int target = sorted[i];
+                if(seen[target] != v + 1){
+                    seen[target] = v + 1;
+                    sorted[kept++] = target;
+                }
+            }
+        }
+        offsets[n] = kept;
+        return sorted;
+    }
+
+    /**
+     * Builds the graph. The builder hands its vertices over to the graph
+     * and is left empty, ready to build another one.
+     *
+     * @return a graph with every vertex and arc added
+     */
+    public AdjListsGraph<T> build(){
+        int n = vertices.size();
+        int[] offsets = new int[n + 1];
+        int[] sorted = sortArcs(offsets);
+        Vector<IntList> arcs = new Vector<IntList>(n);
+        for(int v = 0; v < n; v++){
+            IntList successors = new IntList(offsets[v + 1] - offsets[v]);
+            for(int i = offsets[v]; i < offsets[v + 1]; i++){
+                successors.add(sorted[i]);
+            }
+            arcs.add(successors);
+        }
+        AdjListsGraph<T> graph = new AdjListsGraph<T>(vertices, indices, arcs,
+                                                      connectivity);
+        clear();
+        return graph;
+    }
+
+    /**
+     * Builds a read-only graph straight from the sorted arcs, without
+     * making an adjacency list per vertex. The builder is left empty.
+     *
+     * @return a compressed sparse row graph with every vertex and arc added
+     */
+    public CsrGraph<T> buildSnapshot(){
+        int n = vertices.size();
+        int[] offsets = new int[n + 1];
+        int[] sorted = sortArcs(offsets);
+        T[] table = CsrGraph.toTable(vertices);
+        CsrGraph<T> graph = new CsrGraph<T>(table, offsets,
+                                            Arrays.copyOf(sorted, offsets[n]));
+        clear();
+        return graph;
+    }
+
+    /**
+     * Forgets every vertex and arc
+     */
+    private void clear(){
+        vertices = new Vector<T>();
+        indices = new HashMap<T, Integer>();
+        origins = new IntList();
+        targets = new IntList();
+        connectivity = new DisjointSet();
+    }
+
+    /**
+     * Main method for testing
+     */
+    public static void main(String[] args){
+        System.out.println("***TESTING GraphBuilder***");
+        GraphBuilder<String> builder = new GraphBuilder<String>();
+        int a = builder.addVertex("A");
+        int b = builder.addVertex("B");
+        int c = builder.addVertex("C");
+        int d = builder.addVertex("D");
+        System.out.println("addVertex(B) again--> expected: 1, actual: " + builder.addVertex("B"));
+        builder.addEdges(new int[] {a, a, c, a}, new int[] {b, c, b, b}, 0, 4);
+        System.out.println("components--> expected: 2, actual: " + builder.getNumComponents());
+        System.out.println("largest--> expected: 3, actual: " + builder.getLargestComponentSize());
+        System.out.println("arcs added--> expected: 8, actual: " + builder.getNumArcsAdded());
+
+        AdjListsGraph<String> graph = builder.build();
+        System.out.println("arcs--> expected: 6, actual: " + graph.getNumArcs());
+        System.out.println("A--> expected: [B, C], actual: " + graph.getSuccessors("A"));
+        System.out.println("B--> expected: [A, C], actual: " + graph.getSuccessors("B"));
+        System.out.println("D--> expected: [], actual: " + graph.getSuccessors("D"));
+        System.out.println("live count--> expected: 2, actual: " + graph.getNumComponents());
+        System.out.println("builder emptied--> expected: 0, actual: " + builder.getNumVertices());
+
+        GraphBuilder<String> more = new GraphBuilder<String>(graph);
+        more.addEdge(more.getIndex("C"), more.addVertex("E"));
+        CsrGraph<String> snapshot = more.buildSnapshot();
+        System.out.println("snapshot C--> expected: [A, B, E], actual: " + snapshot.getSuccessors("C"));
+        System.out.println("snapshot arcs--> expected: 8, actual: " + snapshot.getNumArcs());
+    }
+}
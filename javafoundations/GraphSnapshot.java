@@ -0,0 +1,288 @@
+package javafoundations;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Saves graphs in a compact binary format and loads them back as
+ * CsrGraphs. A snapshot file holds, all as big-endian ints:
+ *
+ *   header        magic "RATG", version, number of vertices n, number
+ *                 of arcs m, length in bytes of the string table
+ *   string table  for each vertex, the length of its name in UTF-8 bytes
+ *                 followed by the bytes, padded to a multiple of 4
+ *   offsets       n + 1 row offsets, as in CsrGraph
+ *   targets       m successor indices, grouped by origin vertex
+ *
+ * Loading memory maps the file and copies each section straight into its
+ * array, so a new process can answer queries without parsing the export
+ * again. Vertices are saved by their toString(), so a loaded graph is a
+ * graph of Strings.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class GraphSnapshot
+{
+    private static final int MAGIC = 0x52415447; // "RATG"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * 4;
+
+    /**
+     * Writes a graph to a snapshot file
+     *
+     * @param graph - the graph to save
+     * @param fileName - the file to write
+     * @throws IOException if the file cannot be written, or the graph is
+     *         too large for a snapshot
+     */
+    public static <T> void save(Graph<T> graph, String fileName) throws IOException {
+        int n = graph.getNumVertices();
+        byte[][] names = new byte[n][];
+        long tableBytes = 0;
+        for(int i = 0; i < n; i++){
+            names[i] = graph.getVertex(i).toString().getBytes(StandardCharsets.UTF_8);
+            tableBytes += 4 + names[i].length;
+        }
+        int padding = (int) ((4 - tableBytes % 4) % 4);
+        tableBytes += padding;
+        // load maps the whole file into one buffer, so it must fit in an int
+        long fileBytes = HEADER_BYTES + tableBytes + 4L * (n + 1) + 4L * graph.getNumArcs();
+        if(fileBytes > Integer.MAX_VALUE){
+            throw new IOException(fileName + ": graph too large for a snapshot (" + 
+                                  fileBytes + " bytes)");
+        }
+
+        FileChannel channel = new FileOutputStream(fileName).getChannel();
+        ByteBuffer out = ByteBuffer.allocate(1 << 16);
+        try{
+            putInt(channel, out, MAGIC);
+            putInt(channel, out, VERSION);
+            putInt(channel, out, n);
+            putInt(channel, out, graph.getNumArcs());
+            putInt(channel, out, (int) tableBytes);
+            for(int i = 0; i < n; i++){
+                putInt(channel, out, names[i].length);
+                putBytes(channel, out, names[i]);
+            }
+            putBytes(channel, out, new byte[padding]);
+            int offset = 0;
+            putInt(channel, out, offset);
+            for(int i = 0; i < n; i++){
+                offset += graph.getNumSuccessors(i);
+                putInt(channel, out, offset);
+            }
+            for(int i = 0; i < n; i++){
+                for(int j = 0; j < graph.getNumSuccessors(i); j++){
+                    putInt(channel, out, graph.getSuccessor(i, j));
+                }
+            }
+            flush(channel, out);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Adds an int to the output buffer, writing the buffer out first if
+     * it is full
+     */
+    private static void putInt(FileChannel channel, ByteBuffer out, int value)
+    throws IOException {
+        if(out.remaining() < 4){
+            flush(channel, out);
+        }
+        out.putInt(value);
+    }
+
+    /**
+     * Adds bytes to the output buffer, writing them straight to the file
+     * if they do not fit
+     */
+    private static void putBytes(FileChannel channel, ByteBuffer out, byte[] bytes)
+    throws IOException {
+        if(out.remaining() < bytes.length){
+            flush(channel, out);
+            if(out.remaining() < bytes.length){
+                ByteBuffer large = ByteBuffer.wrap(bytes);
+                while(large.hasRemaining()){
+                    channel.write(large);
+                }
+                return;
+            }
+        }
+        out.put(bytes);
+    }
+
+    /**
+     * Writes out everything in the output buffer and empties it
+     */
+    private static void flush(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while(out.hasRemaining()){
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Reads a snapshot file written by save
+     *
+     * @param fileName - the file to read
+     * @return a read-only graph with the saved vertices and arcs
+     * @throws IOException if the file cannot be read or is not a valid
+     *         snapshot
+     */
+    public static CsrGraph<String> load(String fileName) throws IOException {
+        FileChannel channel = new RandomAccessFile(fileName, "r").getChannel();
+        try{
+            if(channel.size() < HEADER_BYTES){
+                throw new IOException(fileName + ": too short for a graph snapshot");
+            }
+            if(channel.size() > Integer.MAX_VALUE){
+                throw new IOException(fileName + ": too large for a graph snapshot");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                                                  0, channel.size());
+            if(buffer.getInt() != MAGIC){
+                throw new IOException(fileName + ": not a graph snapshot");
+            }
+            int version = buffer.getInt();
+            if(version != VERSION){
+                throw new IOException(fileName + ": unsupported snapshot version " + version);
+            }
+            int n = buffer.getInt();
+            int m = buffer.getInt();
+            int tableBytes = buffer.getInt();
+            long expected = (long) HEADER_BYTES + tableBytes + 4L * (n + 1) + 4L * m;
+            if(n < 0 || m < 0 || tableBytes < 0 || expected != channel.size()){
+                throw new IOException(fileName + ": truncated or corrupt graph snapshot");
+            }
+
+            // every name, and its length, must lie inside the string table
+            int tableEnd = HEADER_BYTES + tableBytes;
+            String[] vertices = new String[n];
+            for(int i = 0; i < n; i++){
+                if(tableEnd - buffer.position() < 4){
+                    throw new IOException(fileName + ": corrupt name of vertex " + i);
+                }
+                int length = buffer.getInt();
+                if(length < 0 || length > tableEnd - buffer.position()){
+                    throw new IOException(fileName + ": corrupt name of vertex " + i);
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                vertices[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            buffer.position(tableEnd);
+            IntBuffer ints = buffer.asIntBuffer();
+            int[] offsets = new int[n + 1];
+            int[] targets = new int[m];
+            ints.get(offsets);
+            ints.get(targets);
+            check(fileName, offsets, targets);
+            return new CsrGraph<String>(vertices, offsets, targets);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Makes sure the offsets and targets describe a valid graph, so a
+     * damaged file fails here rather than in the middle of a traversal
+     */
+    private static void check(String fileName, int[] offsets, int[] targets)
+    throws IOException {
+        int n = offsets.length - 1;
+        if(offsets[0] != 0 || offsets[n] != targets.length){
+            throw new IOException(fileName + ": offsets do not match the number of arcs");
+        }
+        for(int i = 0; i < n; i++){
+            if(offsets[i + 1] < offsets[i]){
+                throw new IOException(fileName + ": offsets of vertex " + i + " decrease");
+            }
+        }
+        for(int a = 0; a < targets.length; a++){
+            if(targets[a] < 0 || targets[a] >= n){
+                throw new IOException(fileName + ": arc " + a + " points outside the graph");
+            }
+        }
+    }
+
+    /**
+     * Returns true if a loaded snapshot has the same vertices, in the same
+     * order, and the same successors as the graph it was saved from
+     */
+    private static <T> boolean sameGraph(Graph<T> graph, CsrGraph<String> loaded){
+        if(graph.getNumVertices() != loaded.getNumVertices() ||
+           graph.getNumArcs() != loaded.getNumArcs()){
+            return false;
+        }
+        for(int i = 0; i < graph.getNumVertices(); i++){
+            if(!graph.getVertex(i).toString().equals(loaded.getVertex(i)) ||
+               graph.getNumSuccessors(i) != loaded.getNumSuccessors(i)){
+                return false;
+            }
+            for(int j = 0; j < graph.getNumSuccessors(i); j++){
+                if(graph.getSuccessor(i, j) != loaded.getSuccessor(i, j)){
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Main method for testing. Run from the project folder, where the
+     * .tgf files are.
+     */
+    public static void main(String[] args) throws IOException {
+        System.out.println("***TESTING GraphSnapshot***");
+        File file = File.createTempFile("GraphSnapshot", ".snapshot");
+        file.deleteOnExit();
+
+        AdjListsGraph<String> cycle = AdjListsGraph.loadFromTGF("Cycle.tgf");
+        save(cycle, file.getPath());
+        CsrGraph<String> loaded = load(file.getPath());
+        System.out.println("Cycle size--> expected: 3 vertices, 6 arcs, actual: " + 
+                           loaded.getNumVertices() + " vertices, " + 
+                           loaded.getNumArcs() + " arcs");
+        System.out.println("Cycle A--> expected: [B, C], actual: " + loaded.getSuccessors("A"));
+        System.out.println("Cycle same--> expected: true, actual: " + sameGraph(cycle, loaded));
+
+        // the RATgraph export, saved by RATgraph and Investigate
+        AdjListsGraph<String> rat = AdjListsGraph.loadFromTGF("RATgraph.tgf");
+        save(rat, file.getPath());
+        loaded = load(file.getPath());
+        System.out.println("RATgraph size--> expected: 896 vertices, 7160 arcs, actual: " + 
+                           loaded.getNumVertices() + " vertices, " + 
+                           loaded.getNumArcs() + " arcs");
+        System.out.println("RATgraph same--> expected: true, actual: " + sameGraph(rat, loaded));
+
+        // a name whose length runs past the string table: the first length 
+        // of the Cycle snapshot is made to cover the rest of the file
+        save(cycle, file.getPath());
+        RandomAccessFile damaged = new RandomAccessFile(file, "rw");
+        damaged.seek(HEADER_BYTES);
+        damaged.writeInt((int) damaged.length() - HEADER_BYTES - 4);
+        damaged.close();
+        try{
+            load(file.getPath());
+            System.out.println("long name--> expected: IOException, actual: loaded");
+        } catch (IOException ex) {
+            System.out.println("long name--> expected: IOException, actual: " + 
+                               ex.getClass().getSimpleName());
+        }
+        try{
+            load("Cycle.tgf");
+            System.out.println("not a snapshot--> expected: IOException, actual: loaded");
+        } catch (IOException ex) {
+            System.out.println("not a snapshot--> expected: IOException, actual: " + 
+                               ex.getClass().getSimpleName());
+        }
+    }
+}
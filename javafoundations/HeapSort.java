@@ -1,36 +1,299 @@
 package javafoundations;
 
-import javafoundations.*;
-import javafoundations.exceptions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
 import java.util.Vector;
 
-
+/**
+ * Heap sort into descending order. The static methods sort arrays and
+ * lists in place, keeping the heap inside the array being sorted, so they
+ * allocate nothing (apart from one copy for lists without random access)
+ * and share no state between calls, which makes them safe to use from
+ * several threads at once.
+ *
+ * The sortTopK methods only finish the front of the array: afterwards the
+ * k largest elements are in the first k positions, largest first, and the
+ * rest are left in no particular order. They keep a min-heap of the best
+ * k seen so far in the front of the array, so they take O(n log k) time.
+ * Sorting everything is the same as sortTopK with k equal to the length.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
 public class HeapSort<T extends Comparable<T>> {
-  
-  private MaxHeap<T> maxHeap;
-  
-  public HeapSort() {
-    maxHeap = new LinkedMaxHeap<T>();
-  }
-  
+
+  /**
+   * Returns a new Vector holding the elements of toSort in descending
+   * order. toSort is not changed.
+   */
   public Vector<T> sortInDescending(Vector<T> toSort) {
-    
-      for (int i = 0; i < toSort.size(); i++){
-          //add elements of vector to maxHeap
-          maxHeap.add(toSort.get(i));
-          
-        }
-      
-      Vector<T> result = new Vector<T>();
-      //loop through maxHeap (same size as toSort)
-      for (int j = 0; j < toSort.size(); j++) {
-          
-          //remove the max and add it to a new vector (will be in descending order)
-          result.add(maxHeap.removeMax());
-        }
-      
+      Vector<T> result = new Vector<T>(toSort);
+      sortDescending(result);
       return result;
     }
-  
-  
+
+  /**
+   * Sorts an array into descending order in place
+   */
+  public static <E extends Comparable<? super E>> void sortDescending(E[] a) {
+      sortTopK(a, a.length);
+    }
+
+  /**
+   * Sorts a list into descending order in place
+   */
+  public static <E extends Comparable<? super E>> void sortDescending(List<E> list) {
+      sortTopK(list, list.size());
+    }
+
+  /**
+   * Sorts an int array into descending order in place
+   */
+  public static void sortDescending(int[] a) {
+      sortTopK(a, a.length);
+    }
+
+  /**
+   * Sorts a long array into descending order in place
+   */
+  public static void sortDescending(long[] a) {
+      sortTopK(a, a.length);
+    }
+
+  /**
+   * Moves the k largest elements of an array to its front, largest first
+   *
+   * @param a - the array, whose elements are rearranged
+   * @param k - how many of the largest elements to sort
+   */
+  public static <E extends Comparable<? super E>> void sortTopK(E[] a, int k) {
+      k = Math.min(Math.max(k, 0), a.length);
+      if (k == 0) {
+          return;
+        }
+      //make a min-heap of the first k elements
+      for (int i = k / 2 - 1; i >= 0; i--) {
+          siftDown(a, i, k);
+        }
+      //swap any larger element into the heap in place of its minimum
+      for (int i = k; i < a.length; i++) {
+          if (a[i].compareTo(a[0]) > 0) {
+              E temp = a[i];
+              a[i] = a[0];
+              a[0] = temp;
+              siftDown(a, 0, k);
+            }
+        }
+      //move the minimum to the back of the heap until it is sorted
+      for (int last = k - 1; last > 0; last--) {
+          E temp = a[last];
+          a[last] = a[0];
+          a[0] = temp;
+          siftDown(a, 0, last);
+        }
+    }
+
+  /**
+   * Moves the k largest elements of a list to its front, largest first
+   *
+   * @param list - the list, whose elements are rearranged
+   * @param k - how many of the largest elements to sort
+   */
+  public static <E extends Comparable<? super E>> void sortTopK(List<E> list, int k) {
+      if (list instanceof RandomAccess) {
+          k = Math.min(Math.max(k, 0), list.size());
+          if (k == 0) {
+              return;
+            }
+          for (int i = k / 2 - 1; i >= 0; i--) {
+              siftDown(list, i, k);
+            }
+          for (int i = k; i < list.size(); i++) {
+              if (list.get(i).compareTo(list.get(0)) > 0) {
+                  list.set(i, list.set(0, list.get(i)));
+                  siftDown(list, 0, k);
+                }
+            }
+          for (int last = k - 1; last > 0; last--) {
+              list.set(last, list.set(0, list.get(last)));
+              siftDown(list, 0, last);
+            }
+        } else {
+          //sort a copy and write it back, as Collections.sort does
+          ArrayList<E> copy = new ArrayList<E>(list);
+          sortTopK(copy, k);
+          ListIterator<E> iter = list.listIterator();
+          for (int i = 0; i < copy.size(); i++) {
+              iter.next();
+              iter.set(copy.get(i));
+            }
+        }
+    }
+
+  /**
+   * Moves the k largest values of an int array to its front, largest first
+   *
+   * @param a - the array, whose values are rearranged
+   * @param k - how many of the largest values to sort
+   */
+  public static void sortTopK(int[] a, int k) {
+      k = Math.min(Math.max(k, 0), a.length);
+      if (k == 0) {
+          return;
+        }
+      for (int i = k / 2 - 1; i >= 0; i--) {
+          siftDown(a, i, k);
+        }
+      for (int i = k; i < a.length; i++) {
+          if (a[i] > a[0]) {
+              int temp = a[i];
+              a[i] = a[0];
+              a[0] = temp;
+              siftDown(a, 0, k);
+            }
+        }
+      for (int last = k - 1; last > 0; last--) {
+          int temp = a[last];
+          a[last] = a[0];
+          a[0] = temp;
+          siftDown(a, 0, last);
+        }
+    }
+
+  /**
+   * Moves the k largest values of a long array to its front, largest first
+   *
+   * @param a - the array, whose values are rearranged
+   * @param k - how many of the largest values to sort
+   */
+  public static void sortTopK(long[] a, int k) {
+      k = Math.min(Math.max(k, 0), a.length);
+      if (k == 0) {
+          return;
+        }
+      for (int i = k / 2 - 1; i >= 0; i--) {
+          siftDown(a, i, k);
+        }
+      for (int i = k; i < a.length; i++) {
+          if (a[i] > a[0]) {
+              long temp = a[i];
+              a[i] = a[0];
+              a[0] = temp;
+              siftDown(a, 0, k);
+            }
+        }
+      for (int last = k - 1; last > 0; last--) {
+          long temp = a[last];
+          a[last] = a[0];
+          a[0] = temp;
+          siftDown(a, 0, last);
+        }
+    }
+
+  /**
+   * Moves a[i] down the min-heap in a[0..size) until neither child is
+   * smaller
+   */
+  private static <E extends Comparable<? super E>> void siftDown(E[] a, int i, int size) {
+      E element = a[i];
+      int child = 2 * i + 1;
+      while (child < size) {
+          if (child + 1 < size && a[child + 1].compareTo(a[child]) < 0) {
+              child++;
+            }
+          if (a[child].compareTo(element) >= 0) {
+              break;
+            }
+          a[i] = a[child];
+          i = child;
+          child = 2 * i + 1;
+        }
+      a[i] = element;
+    }
+
+  private static <E extends Comparable<? super E>> void siftDown(List<E> list, int i, int size) {
+      E element = list.get(i);
+      int child = 2 * i + 1;
+      while (child < size) {
+          if (child + 1 < size && list.get(child + 1).compareTo(list.get(child)) < 0) {
+              child++;
+            }
+          if (list.get(child).compareTo(element) >= 0) {
+              break;
+            }
+          list.set(i, list.get(child));
+          i = child;
+          child = 2 * i + 1;
+        }
+      list.set(i, element);
+    }
+
+  private static void siftDown(int[] a, int i, int size) {
+      int value = a[i];
+      int child = 2 * i + 1;
+      while (child < size) {
+          if (child + 1 < size && a[child + 1] < a[child]) {
+              child++;
+            }
+          if (a[child] >= value) {
+              break;
+            }
+          a[i] = a[child];
+          i = child;
+          child = 2 * i + 1;
+        }
+      a[i] = value;
+    }
+
+  private static void siftDown(long[] a, int i, int size) {
+      long value = a[i];
+      int child = 2 * i + 1;
+      while (child < size) {
+          if (child + 1 < size && a[child + 1] < a[child]) {
+              child++;
+            }
+          if (a[child] >= value) {
+              break;
+            }
+          a[i] = a[child];
+          i = child;
+          child = 2 * i + 1;
+        }
+      a[i] = value;
+    }
+
+  /**
+   * Main method for testing
+   */
+  public static void main(String[] args) {
+      System.out.println("***TESTING HeapSort***");
+      Integer[] a = {4, 8, 1, 8, 3, 4};
+      sortTopK(a, 0);
+      System.out.println("k=0--> expected: [4, 8, 1, 8, 3, 4], actual: " + Arrays.toString(a));
+      sortTopK(a, 3);
+      System.out.println("k=3 front--> expected: [8, 8, 4], actual: " +
+                         Arrays.toString(Arrays.copyOf(a, 3)));
+      sortTopK(a, 10);
+      System.out.println("k>n--> expected: [8, 8, 4, 4, 3, 1], actual: " + Arrays.toString(a));
+
+      int[] ints = {2, 2, 2, -5, 9};
+      sortTopK(ints, 2);
+      System.out.println("int duplicates k=2 front--> expected: 9 2, actual: " + ints[0] + " " + ints[1]);
+      long[] longs = {};
+      sortDescending(longs);
+      System.out.println("empty long--> expected: 0, actual: " + longs.length);
+
+      List<String> linked = new LinkedList<String>(Arrays.asList("b", "d", "a", "d", "c"));
+      sortTopK(linked, -1);
+      System.out.println("linked k<0--> expected: [b, d, a, d, c], actual: " + linked);
+      sortDescending(linked);
+      System.out.println("linked--> expected: [d, d, c, b, a], actual: " + linked);
+      List<String> array = new ArrayList<String>(Arrays.asList("b", "d", "a", "d", "c"));
+      sortTopK(array, 7);
+      System.out.println("array list k>n--> expected: [d, d, c, b, a], actual: " + array);
+    }
 }
@@ -0,0 +1,161 @@
+package javafoundations;
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints backed by an array. Used by the
+ * graph classes to store successor indices without boxing each one, and
+ * gives constant time access to any position.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class IntList
+{
+    private final int DEFAULT_CAPACITY = 4;
+    private int count;
+    private int[] items;
+
+    /**
+     * Constructor
+     * Creates an empty list using the default capacity.
+     */
+    public IntList(){
+        items = new int[DEFAULT_CAPACITY];
+        count = 0;
+    }
+
+    /**
+     * Constructor
+     * Creates an empty list that can hold capacity ints before growing.
+     *
+     * @param capacity - initial length of the backing array
+     */
+    public IntList(int capacity){
+        items = new int[capacity];
+        count = 0;
+    }
+
+    /**
+     * Adds the specified value to the end of the list, expanding
+     * the capacity of the array if necessary.
+     *
+     * @param value - the value to add
+     */
+    public void add(int value){
+        if(count == items.length){
+            items = Arrays.copyOf(items, Math.max(DEFAULT_CAPACITY, count * 2));
+        }
+        items[count] = value;
+        count++;
+    }
+
+    /**
+     * Returns the value at the given position
+     *
+     * @param position - from 0 to size() - 1
+     * @return the value stored there
+     */
+    public int get(int position){
+        if(position >= count){
+            throw new IndexOutOfBoundsException("Position: " + position +
+                ", size: " + count);
+        }
+        return items[position];
+    }
+
+    /**
+     * Replaces the value at the given position
+     *
+     * @param position - from 0 to size() - 1
+     * @param value - the new value
+     */
+    public void set(int position, int value){
+        if(position >= count){
+            throw new IndexOutOfBoundsException("Position: " + position +
+                ", size: " + count);
+        }
+        items[position] = value;
+    }
+
+    /**
+     * Removes the value at the given position, shifting later values
+     * down by one so the order of the list is kept
+     *
+     * @param position - from 0 to size() - 1
+     * @return the value that was removed
+     */
+    public int remove(int position){
+        int value = get(position);
+        System.arraycopy(items, position + 1, items, position, count - position - 1);
+        count--;
+        return value;
+    }
+
+    /**
+     * Returns the position of the first occurrence of a value
+     *
+     * @param value - the value to look for
+     * @return its position, or -1 if the list does not contain it
+     */
+    public int indexOf(int value){
+        for(int i = 0; i < count; i++){
+            if(items[i] == value){
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns true if the list contains the given value
+     *
+     * @param value - the value to look for
+     * @return true if the value is in the list, false otherwise
+     */
+    public boolean contains(int value){
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the number of values in the list
+     *
+     * @return the number of values in the list
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Returns true if the list holds no values
+     *
+     * @return true if the list is empty, false otherwise
+     */
+    public boolean isEmpty(){
+        return count == 0;
+    }
+
+    /**
+     * Removes every value, keeping the capacity
+     */
+    public void clear(){
+        count = 0;
+    }
+
+    /**
+     * Copies the values of the list into a new array of exactly size()
+     *
+     * @return the values, in list order
+     */
+    public int[] toArray(){
+        return Arrays.copyOf(items, count);
+    }
+
+    /**
+     * Returns a string representation of the list
+     *
+     * @return String
+     */
+    public String toString(){
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,186 @@
+//*******************************************************************
+//  IntMaxHeap.java       Java Foundations
+//
+//  Implements a max heap of primitive ints using an array, laid out
+//  the same way as ArrayMaxHeap but without boxing any element.
+//*******************************************************************
+
+package javafoundations;
+
+import java.util.Arrays;
+import javafoundations.exceptions.*;
+
+public class IntMaxHeap
+{
+   private final int DEFAULT_CAPACITY = 16;
+   private int count;
+   private int[] heap;
+
+   //-----------------------------------------------------------------
+   //  Creates an empty heap using the default capacity.
+   //-----------------------------------------------------------------
+   public IntMaxHeap()
+   {
+      count = 0;
+      heap = new int[DEFAULT_CAPACITY];
+   }
+
+   //-----------------------------------------------------------------
+   //  Creates a heap holding a copy of the specified values,
+   //  heapified bottom up in O(n) time.
+   //-----------------------------------------------------------------
+   public IntMaxHeap (int[] values)
+   {
+      count = values.length;
+      heap = Arrays.copyOf(values, Math.max(count, DEFAULT_CAPACITY));
+      for (int index = count/2 - 1; index >= 0; index--)
+         siftDown(index);
+   }
+
+   //-----------------------------------------------------------------
+   //  Adds the specified value to this heap as the next leaf then
+   //  moves it up until its parent is at least as large.
+   //-----------------------------------------------------------------
+   public void add (int value)
+   {
+      if (count == heap.length)
+         heap = Arrays.copyOf(heap, heap.length*2);
+
+      int index = count++;
+      while (index > 0)
+      {
+         int parent = (index - 1) / 2;
+         if (heap[parent] >= value)
+            break;
+         heap[index] = heap[parent];
+         index = parent;
+      }
+      heap[index] = value;
+   }
+
+   //-----------------------------------------------------------------
+   //  Removes the largest value in this heap and returns it.
+   //-----------------------------------------------------------------
+   public int removeMax()
+   {
+      if (count == 0)
+         throw new EmptyCollectionException ("Remove max operation " +
+            "failed. Heap is empty.");
+
+      int max = heap[0];
+      count--;
+      heap[0] = heap[count];
+      if (count > 0)
+         siftDown(0);
+
+      return max;
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns the largest value in this heap.
+   //-----------------------------------------------------------------
+   public int getMax()
+   {
+      if (count == 0)
+         throw new EmptyCollectionException ("Get max operation " +
+            "failed. Heap is empty.");
+
+      return heap[0];
+   }
+
+   //-----------------------------------------------------------------
+   //  Moves the value at the specified index down until both of its
+   //  children are no larger than it.
+   //-----------------------------------------------------------------
+   private void siftDown (int index)
+   {
+      int value = heap[index];
+      int child = 2*index + 1;
+      while (child < count)
+      {
+         if (child + 1 < count && heap[child+1] > heap[child])
+            child++;
+         if (heap[child] <= value)
+            break;
+         heap[index] = heap[child];
+         index = child;
+         child = 2*index + 1;
+      }
+      heap[index] = value;
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns true if this heap contains no values.
+   //-----------------------------------------------------------------
+   public boolean isEmpty()
+   {
+      return (count == 0);
+   }
+
+   //-----------------------------------------------------------------
+   //  Returns the number of values in this heap.
+   //-----------------------------------------------------------------
+   public int size()
+   {
+      return count;
+   }
+
+   //-----------------------------------------------------------------
+   //  Removes every value, keeping the capacity.
+   //-----------------------------------------------------------------
+   public void clear()
+   {
+      count = 0;
+   }
+
+   //-----------------------------------------------------------------
+   //  Main method for testing.
+   //-----------------------------------------------------------------
+   public static void main (String[] args)
+   {
+      System.out.println("***TESTING IntMaxHeap***");
+      IntMaxHeap heap = new IntMaxHeap();
+      for (int value : new int[] {5, -1, 9, 3, 9, 7})
+         heap.add(value);
+      System.out.println("size--> expected: 6, actual: " + heap.size());
+      System.out.println("getMax--> expected: 9, actual: " + heap.getMax());
+      StringBuilder order = new StringBuilder();
+      while (!heap.isEmpty())
+         order.append(heap.removeMax()).append(" ");
+      System.out.println("removeMax order--> expected: 9 9 7 5 3 -1 , actual: " + order);
+
+      // more values than the default capacity, heapified at once
+      int[] values = new int[40];
+      for (int i = 0; i < values.length; i++)
+         values[i] = (i * 17) % 40;
+      IntMaxHeap built = new IntMaxHeap(values);
+      System.out.println("built getMax--> expected: 39, actual: " + built.getMax());
+      System.out.println("values untouched--> expected: 0 17, actual: " + values[0] + " " + values[1]);
+      built.add(100);
+      int first = built.removeMax();
+      boolean sorted = true;
+      int previous = first;
+      while (!built.isEmpty())
+      {
+         int next = built.removeMax();
+         sorted = sorted && next <= previous;
+         previous = next;
+      }
+      System.out.println("removed largest first--> expected: 100 true, actual: " + first +
+         " " + sorted);
+
+      built.add(4);
+      built.clear();
+      System.out.println("after clear--> expected: true, actual: " + built.isEmpty());
+      try
+      {
+         built.getMax();
+         System.out.println("empty getMax--> expected: EmptyCollectionException, actual: none");
+      }
+      catch (EmptyCollectionException exception)
+      {
+         System.out.println("empty getMax--> expected: EmptyCollectionException, actual: " +
+            exception.getClass().getSimpleName());
+      }
+   }
+}
@@ -0,0 +1,190 @@
+package javafoundations;
+import java.util.Arrays;
+
+/**
+ * A hash set of primitive longs, using open addressing with linear
+ * probing like LongIntHashMap. Nothing is boxed, so adding, removing and
+ * looking up a key allocates no objects. Removal shifts the following
+ * entries of the probe run back instead of leaving markers behind, so
+ * lookups stay fast however many keys come and go.
+ *
+ * A pair of ints can be stored as one key with pack(high, low).
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class LongHashSet
+{
+    private final int DEFAULT_CAPACITY = 16;
+    private long[] keys;
+    private boolean[] used; // used[i] is true if slot i holds a key
+    private int count;
+    private int mask; // capacity - 1, capacity is a power of two
+
+    /**
+     * Constructor
+     * Creates an empty set using the default capacity.
+     */
+    public LongHashSet(){
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * Creates an empty set that holds expected keys without resizing.
+     *
+     * @param expected - number of keys expected
+     */
+    public LongHashSet(int expected){
+        int capacity = DEFAULT_CAPACITY;
+        while(capacity * 3 / 4 < expected){
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Packs two ints into one long key
+     *
+     * @param high - stored in the upper 32 bits
+     * @param low - stored in the lower 32 bits
+     * @return the key
+     */
+    public static long pack(int high, int low){
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Creates empty arrays of the given power of two capacity
+     */
+    private void allocate(int capacity){
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        count = 0;
+    }
+
+    /**
+     * Spreads the bits of a key so that nearby keys land far apart
+     */
+    private static int hash(long key){
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    /**
+     * Returns the slot holding key, or the empty slot where it would go
+     */
+    private int slot(long key){
+        int i = hash(key) & mask;
+        while(used[i] && keys[i] != key){
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Returns true if the set holds a key
+     *
+     * @return true if the key is in the set, false otherwise
+     */
+    public boolean contains(long key){
+        return used[slot(key)];
+    }
+
+    /**
+     * Adds a key
+     *
+     * @param key - the key to add
+     * @return true if the key was added, false if it was already there
+     */
+    public boolean add(long key){
+        int i = slot(key);
+        if(used[i]){
+            return false;
+        }
+        if((count + 1) * 4 > keys.length * 3){
+            grow();
+            i = slot(key);
+        }
+        used[i] = true;
+        keys[i] = key;
+        count++;
+        return true;
+    }
+
+    /**
+     * Removes a key
+     *
+     * @param key - the key to remove
+     * @return true if the key was removed, false if it was not there
+     */
+    public boolean remove(long key){
+        int i = slot(key);
+        if(!used[i]){
+            return false;
+        }
+        // shift back every later key of the run that may sit at i
+        int j = i;
+        while(true){
+            j = (j + 1) & mask;
+            if(!used[j]){
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            // the key at j can move to i unless its home lies in (i, j]
+            boolean between = (i <= j) ? (i < home && home <= j)
+                                       : (i < home || home <= j);
+            if(!between){
+                keys[i] = keys[j];
+                i = j;
+            }
+        }
+        used[i] = false;
+        count--;
+        return true;
+    }
+
+    /**
+     * Doubles the capacity and puts every key back
+     */
+    private void grow(){
+        long[] oldKeys = keys;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldUsed[i]){
+                int j = slot(oldKeys[i]);
+                used[j] = true;
+                keys[j] = oldKeys[i];
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys
+     *
+     * @return the number of keys in the set
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Returns true if the set has no keys
+     *
+     * @return true if the set is empty
+     */
+    public boolean isEmpty(){
+        return count == 0;
+    }
+
+    /**
+     * Removes every key, keeping the capacity
+     */
+    public void clear(){
+        Arrays.fill(used, false);
+        count = 0;
+    }
+}
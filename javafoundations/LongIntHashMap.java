@@ -0,0 +1,206 @@
+package javafoundations;
+import java.util.Arrays;
+
+/**
+ * A hash map from primitive long keys to primitive int values, using open
+ * addressing with linear probing in two parallel arrays. Nothing is boxed,
+ * so lookups and updates allocate no objects. Entries cannot be removed.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class LongIntHashMap
+{
+    private final int DEFAULT_CAPACITY = 16;
+    private long[] keys;
+    private int[] values;
+    private boolean[] used; // used[i] is true if slot i holds an entry
+    private int count;
+    private int mask; // capacity - 1, capacity is a power of two
+
+    /**
+     * Constructor
+     * Creates an empty map using the default capacity.
+     */
+    public LongIntHashMap(){
+        allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor
+     * Creates an empty map that holds expected entries without resizing.
+     *
+     * @param expected - number of entries expected
+     */
+    public LongIntHashMap(int expected){
+        int capacity = DEFAULT_CAPACITY;
+        while(capacity * 3 / 4 < expected){
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Creates empty arrays of the given power of two capacity
+     */
+    private void allocate(int capacity){
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        mask = capacity - 1;
+        count = 0;
+    }
+
+    /**
+     * Spreads the bits of a key so that nearby keys land far apart
+     */
+    private static int hash(long key){
+        key *= 0x9E3779B97F4A7C15L;
+        return (int) (key ^ (key >>> 32));
+    }
+
+    /**
+     * Returns the slot holding key, or the empty slot where it would go
+     */
+    private int slot(long key){
+        int i = hash(key) & mask;
+        while(used[i] && keys[i] != key){
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the value stored for a key
+     *
+     * @param key - the key to look up
+     * @param missing - value to return if the key is not in the map
+     * @return the value for the key, or missing
+     */
+    public int get(long key, int missing){
+        int i = slot(key);
+        return used[i] ? values[i] : missing;
+    }
+
+    /**
+     * Returns true if the map holds a value for the key
+     *
+     * @return true if the key is in the map, false otherwise
+     */
+    public boolean containsKey(long key){
+        return used[slot(key)];
+    }
+
+    /**
+     * Stores a value for a key, replacing any value it already had
+     *
+     * @param key - the key
+     * @param value - the value to store
+     */
+    public void put(long key, int value){
+        int i = slot(key);
+        if(!used[i]){
+            if((count + 1) * 4 > keys.length * 3){
+                grow();
+                i = slot(key);
+            }
+            used[i] = true;
+            keys[i] = key;
+            count++;
+        }
+        values[i] = value;
+    }
+
+    /**
+     * Adds delta to the value for a key, starting from 0 if it has none
+     *
+     * @param key - the key
+     * @param delta - amount to add
+     * @return the new value
+     */
+    public int add(long key, int delta){
+        int i = slot(key);
+        if(!used[i]){
+            put(key, delta);
+            return delta;
+        }
+        values[i] += delta;
+        return values[i];
+    }
+
+    /**
+     * Doubles the capacity and puts every entry back
+     */
+    private void grow(){
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        allocate(oldKeys.length * 2);
+        for(int i = 0; i < oldKeys.length; i++){
+            if(oldUsed[i]){
+                int j = slot(oldKeys[i]);
+                used[j] = true;
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+                count++;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries
+     *
+     * @return the number of keys in the map
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Returns true if the map has no entries
+     *
+     * @return true if the map is empty
+     */
+    public boolean isEmpty(){
+        return count == 0;
+    }
+
+    /**
+     * Returns the number of slots, for walking the entries with
+     * isUsed, getKey and getValue
+     *
+     * @return the capacity of the backing arrays
+     */
+    public int capacity(){
+        return keys.length;
+    }
+
+    /**
+     * Returns true if a slot holds an entry
+     */
+    public boolean isUsed(int slot){
+        return used[slot];
+    }
+
+    /**
+     * Returns the key stored in a used slot
+     */
+    public long getKey(int slot){
+        return keys[slot];
+    }
+
+    /**
+     * Returns the value stored in a used slot
+     */
+    public int getValue(int slot){
+        return values[slot];
+    }
+
+    /**
+     * Removes every entry, keeping the capacity
+     */
+    public void clear(){
+        Arrays.fill(used, false);
+        count = 0;
+    }
+}
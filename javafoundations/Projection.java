@@ -0,0 +1,428 @@
+package javafoundations;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Projects a BipartiteGraph onto one of its sides.
+ *
+ * projectUsers joins two users by an edge weighted by the number of
+ * stories they both appear in. Every
+ * story adds one to the count of each pair of its users, counted in a
+ * LongIntHashMap keyed by the packed pair, so a story only costs work for
+ * the pairs it actually has. The stories are split into ranges of about
+ * the same number of pairs, each range is counted on its own thread into
+ * its own map, and the maps are added together at the end.
+ *
+ * Pairs sharing fewer than a minimum number of stories are dropped, which
+ * keeps the projection small when a popular story joins hundreds of
+ * users. The result is a weighted CsrGraph of screen names in which
+ * vertex i is user i of the bipartite graph, with each row sorted.
+ *
+ * projectStories joins two stories by an edge weighted by the number of
+ * users they share. The weights of one story at a time are added up in a
+ * dense array, touching only the stories reached through its users, and
+ * only the story's topN strongest neighbours are kept, picked with a
+ * TopK. A pair is joined if either story keeps the other, so the graph
+ * has at most 2 * topN arcs for every story however popular the users
+ * are, although one story can be kept by many others. The
+ * vertices are the story ids as RATgraph labels them, so the closeness
+ * and component analyses can run on it directly.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class Projection
+{
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Projects onto the users on this thread
+     *
+     * @param bipartite - the users and stories
+     * @param minWeight - fewest shared stories for a pair to be joined
+     * @return graph of users weighted by the number of stories they share
+     */
+    public static CsrGraph<String> projectUsers(BipartiteGraph bipartite, int minWeight){
+        return projectUsers(bipartite, minWeight, 1);
+    }
+
+    /**
+     * Projects onto the users, counting pairs on several threads. The
+     * result is the same as on one thread.
+     *
+     * @param bipartite - the users and stories
+     * @param minWeight - fewest shared stories for a pair to be joined
+     * @param threads - number of threads counting pairs
+     * @return graph of users weighted by the number of stories they share
+     */
+    public static CsrGraph<String> projectUsers(BipartiteGraph bipartite, int minWeight,
+                                                int threads){
+        LongIntHashMap pairs = countPairs(bipartite, Math.max(1, threads));
+        String[] names = new String[bipartite.getNumUsers()];
+        for(int u = 0; u < names.length; u++){
+            names[u] = bipartite.getUserName(u);
+        }
+        return toGraph(names, pairs, Math.max(1, minWeight));
+    }
+
+    /**
+     * Returns the number of pairs of users of a story
+     */
+    private static long numPairs(BipartiteGraph bipartite, int story){
+        long k = bipartite.getStoryDegree(story);
+        return k * (k - 1) / 2;
+    }
+
+    /**
+     * Counts the stories shared by every pair of users, splitting the
+     * stories into ranges of about the same number of pairs
+     *
+     * @return number of shared stories, keyed by pack(lower user, higher user)
+     */
+    private static LongIntHashMap countPairs(final BipartiteGraph bipartite, int threads){
+        int numStories = bipartite.getNumStories();
+        if(threads == 1){
+            return countPairs(bipartite, 0, numStories);
+        }
+        long[] work = new long[numStories];
+        for(int s = 0; s < numStories; s++){
+            work[s] = numPairs(bipartite, s);
+        }
+        IntList ranges = split(work, threads * CHUNKS_PER_THREAD);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try{
+            List<Future<LongIntHashMap>> counts = new ArrayList<Future<LongIntHashMap>>();
+            for(int r = 0; r + 1 < ranges.size(); r++){
+                final int first = ranges.get(r), last = ranges.get(r + 1);
+                counts.add(pool.submit(new Callable<LongIntHashMap>(){
+                        public LongIntHashMap call(){
+                            return countPairs(bipartite, first, last);
+                        }
+                    }));
+            }
+
+            // add every map into the largest
+            List<LongIntHashMap> maps = new ArrayList<LongIntHashMap>(counts.size());
+            LongIntHashMap merged = new LongIntHashMap();
+            for(Future<LongIntHashMap> count : counts){
+                LongIntHashMap map = waitFor(count);
+                maps.add(map);
+                if(map.size() > merged.size()){
+                    merged = map;
+                }
+            }
+            for(LongIntHashMap map : maps){
+                if(map == merged){
+                    continue;
+                }
+                for(int slot = 0; slot < map.capacity(); slot++){
+                    if(map.isUsed(slot)){
+                        merged.add(map.getKey(slot), map.getValue(slot));
+                    }
+                }
+            }
+            return merged;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits 0 to work.length - 1 into about numRanges consecutive ranges
+     * of about the same total work
+     *
+     * @param work - work[i] is the cost of item i
+     * @return the first item of every range, then work.length
+     */
+    private static IntList split(long[] work, int numRanges){
+        long total = 0;
+        for(int i = 0; i < work.length; i++){
+            total += work[i];
+        }
+        long perRange = Math.max(1, total / numRanges);
+        IntList ranges = new IntList();
+        ranges.add(0);
+        long sum = 0;
+        for(int i = 0; i < work.length; i++){
+            sum += work[i];
+            if(sum >= perRange && i + 1 < work.length){
+                ranges.add(i + 1);
+                sum = 0;
+            }
+        }
+        ranges.add(work.length);
+        return ranges;
+    }
+
+    /**
+     * Counts the pairs of users of the stories from first up to last
+     */
+    private static LongIntHashMap countPairs(BipartiteGraph bipartite, int first, int last){
+        long expected = 0;
+        for(int s = first; s < last; s++){
+            expected += numPairs(bipartite, s);
+        }
+        // most pairs of a range are new to it, so size for all of them
+        LongIntHashMap pairs = new LongIntHashMap((int) Math.min(expected, 1 << 20));
+        for(int s = first; s < last; s++){
+            int k = bipartite.getStoryDegree(s);
+            for(int i = 0; i < k; i++){
+                int u = bipartite.getStoryUser(s, i);
+                for(int j = i + 1; j < k; j++){
+                    int v = bipartite.getStoryUser(s, j);
+                    pairs.add((u < v) ? LongHashSet.pack(u, v) : LongHashSet.pack(v, u), 1);
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Projects onto the stories on this thread, keeping the topN strongest
+     * neighbours of every story
+     *
+     * @param bipartite - the users and stories
+     * @param topN - neighbours kept per story
+     * @return graph of stories weighted by the number of users they share
+     */
+    public static CsrGraph<String> projectStories(BipartiteGraph bipartite, int topN){
+        return projectStories(bipartite, topN, 1);
+    }
+
+    /**
+     * Projects onto the stories, keeping the topN strongest neighbours of
+     * every story, on several threads. The result is the same as on one
+     * thread.
+     *
+     * @param bipartite - the users and stories
+     * @param topN - neighbours kept per story
+     * @param threads - number of threads finding neighbours
+     * @return graph of stories weighted by the number of users they share
+     */
+    public static CsrGraph<String> projectStories(final BipartiteGraph bipartite,
+                                                  final int topN, int threads){
+        int numStories = bipartite.getNumStories();
+        final TopK.Entry[][] kept = new TopK.Entry[numStories][];
+        threads = Math.max(1, threads);
+        if(threads == 1){
+            keepNeighbours(bipartite, topN, 0, numStories, kept);
+        } else {
+            // a story costs one step per story of each of its users
+            long[] work = new long[numStories];
+            for(int s = 0; s < numStories; s++){
+                for(int i = 0; i < bipartite.getStoryDegree(s); i++){
+                    work[s] += bipartite.getUserDegree(bipartite.getStoryUser(s, i));
+                }
+            }
+            IntList ranges = split(work, threads * CHUNKS_PER_THREAD);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try{
+                List<Future<Object>> done = new ArrayList<Future<Object>>();
+                for(int r = 0; r + 1 < ranges.size(); r++){
+                    final int first = ranges.get(r), last = ranges.get(r + 1);
+                    done.add(pool.submit(new Callable<Object>(){
+                            public Object call(){
+                                keepNeighbours(bipartite, topN, first, last, kept);
+                                return null;
+                            }
+                        }));
+                }
+                for(Future<Object> range : done){
+                    waitFor(range);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        String[] labels = new String[numStories];
+        for(int s = 0; s < numStories; s++){
+            labels[s] = Long.toString(bipartite.getStoryId(s));
+        }
+        return toGraph(labels, kept);
+    }
+
+    /**
+     * Finds the topN strongest neighbours of the stories from first up to
+     * last, storing them in kept
+     */
+    private static void keepNeighbours(BipartiteGraph bipartite, int topN, int first,
+                                       int last, TopK.Entry[][] kept){
+        int[] shared = new int[bipartite.getNumStories()]; // users shared with s
+        IntList touched = new IntList(); // stories with shared > 0
+        TopK top = new TopK(Math.max(0, topN));
+        for(int s = first; s < last; s++){
+            for(int i = 0; i < bipartite.getStoryDegree(s); i++){
+                int user = bipartite.getStoryUser(s, i);
+                for(int j = 0; j < bipartite.getUserDegree(user); j++){
+                    int t = bipartite.getUserStory(user, j);
+                    if(t != s && shared[t]++ == 0){
+                        touched.add(t);
+                    }
+                }
+            }
+            for(int i = 0; i < touched.size(); i++){
+                int t = touched.get(i);
+                top.offer(t, shared[t]);
+                shared[t] = 0;
+            }
+            touched.clear();
+            kept[s] = top.result();
+            top.clear();
+        }
+    }
+
+    /**
+     * Waits for a range of stories to be done
+     */
+    private static <V> V waitFor(Future<V> range){
+        try{
+            return range.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while projecting", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Makes a weighted graph with an edge for every pair of at least
+     * minWeight, sorting each row by successor
+     */
+    private static CsrGraph<String> toGraph(String[] names, LongIntHashMap pairs,
+                                            int minWeight){
+        int n = names.length;
+        int[] offsets = new int[n + 1];
+        for(int slot = 0; slot < pairs.capacity(); slot++){
+            if(pairs.isUsed(slot) && pairs.getValue(slot) >= minWeight){
+                long key = pairs.getKey(slot);
+                offsets[(int) (key >>> 32) + 1]++;
+                offsets[(int) key + 1]++;
+            }
+        }
+        for(int u = 0; u < n; u++){
+            offsets[u + 1] += offsets[u];
+        }
+
+        // each arc as pack(target, weight), so sorting a row sorts by target
+        long[] arcs = new long[offsets[n]];
+        int[] next = Arrays.copyOf(offsets, n);
+        for(int slot = 0; slot < pairs.capacity(); slot++){
+            int weight = pairs.getValue(slot);
+            if(pairs.isUsed(slot) && weight >= minWeight){
+                long key = pairs.getKey(slot);
+                int u = (int) (key >>> 32), v = (int) key;
+                arcs[next[u]++] = LongHashSet.pack(v, weight);
+                arcs[next[v]++] = LongHashSet.pack(u, weight);
+            }
+        }
+        int[] targets = new int[arcs.length];
+        int[] weights = new int[arcs.length];
+        for(int u = 0; u < n; u++){
+            Arrays.sort(arcs, offsets[u], offsets[u + 1]);
+        }
+        for(int a = 0; a < arcs.length; a++){
+            targets[a] = (int) (arcs[a] >>> 32);
+            weights[a] = (int) arcs[a];
+        }
+        return new CsrGraph<String>(names, offsets, targets, weights);
+    }
+
+    /**
+     * Makes a weighted graph with an edge wherever either story kept the
+     * other, sorting each row by successor
+     */
+    private static CsrGraph<String> toGraph(String[] labels, TopK.Entry[][] kept){
+        int n = labels.length;
+        int[] offsets = new int[n + 1];
+        for(int s = 0; s < n; s++){
+            for(int i = 0; i < kept[s].length; i++){
+                offsets[s + 1]++;
+                offsets[kept[s][i].getId() + 1]++;
+            }
+        }
+        for(int s = 0; s < n; s++){
+            offsets[s + 1] += offsets[s];
+        }
+        long[] arcs = new long[offsets[n]];
+        int[] next = Arrays.copyOf(offsets, n);
+        for(int s = 0; s < n; s++){
+            for(int i = 0; i < kept[s].length; i++){
+                int t = kept[s][i].getId();
+                int weight = (int) kept[s][i].getScore();
+                arcs[next[s]++] = LongHashSet.pack(t, weight);
+                arcs[next[t]++] = LongHashSet.pack(s, weight);
+            }
+        }
+
+        // a pair kept by both stories is in each row twice, one after
+        // the other once sorted, so only the first copy is kept
+        int[] targets = new int[arcs.length];
+        int[] weights = new int[arcs.length];
+        int count = 0;
+        for(int s = 0; s < n; s++){
+            Arrays.sort(arcs, offsets[s], offsets[s + 1]);
+            int start = offsets[s];
+            offsets[s] = count;
+            for(int a = start; a < offsets[s + 1]; a++){
+                if(a == start || arcs[a] != arcs[a - 1]){
+                    targets[count] = (int) (arcs[a] >>> 32);
+                    weights[count++] = (int) arcs[a];
+                }
+            }
+        }
+        offsets[n] = count;
+        return new CsrGraph<String>(labels, offsets, Arrays.copyOf(targets, count),
+                                    Arrays.copyOf(weights, count));
+    }
+
+    /**
+     * Main method for testing
+     */
+    public static void main(String[] args){
+        System.out.println("***TESTING Projection***");
+        BipartiteGraph bipartite = new BipartiteGraph();
+        int a = bipartite.addUser("a", 1, 0, 0);
+        int b = bipartite.addUser("b", 2, 0, 0);
+        int c = bipartite.addUser("c", 3, 0, 0);
+        int d = bipartite.addUser("d", 4, 0, 0);
+        int s1 = bipartite.addStory(10);
+        int s2 = bipartite.addStory(20);
+        int s3 = bipartite.addStory(30);
+        bipartite.addEdge(a, s1);
+        bipartite.addEdge(b, s1);
+        bipartite.addEdge(c, s1);
+        bipartite.addEdge(a, s2);
+        bipartite.addEdge(b, s2);
+        bipartite.addEdge(b, s3);
+        bipartite.addEdge(d, s3);
+
+        CsrGraph<String> all = projectUsers(bipartite, 1);
+        System.out.println("a--> expected: [b, c], actual: " + all.getSuccessors("a"));
+        System.out.println("b--> expected: [a, c, d], actual: " + all.getSuccessors("b"));
+        System.out.println("a-b weight--> expected: 2, actual: " + all.getWeight(a, 0));
+        System.out.println("b-d weight--> expected: 1, actual: " + all.getWeight(b, 2));
+        System.out.println("arcs--> expected: 8, actual: " + all.getNumArcs());
+
+        CsrGraph<String> strong = projectUsers(bipartite, 2, 3);
+        System.out.println("threshold 2, a--> expected: [b], actual: " + strong.getSuccessors("a"));
+        System.out.println("threshold 2, d--> expected: [], actual: " + strong.getSuccessors("d"));
+        System.out.println("threshold 2, arcs--> expected: 2, actual: " + strong.getNumArcs());
+        System.out.println("undirected--> expected: true, actual: " + strong.isUndirected());
+
+        // stories 10 and 20 share a and b, 10 and 30 share b, 20 and 30 share b
+        CsrGraph<String> stories = projectStories(bipartite, 2);
+        System.out.println("10--> expected: [20, 30], actual: " + stories.getSuccessors("10"));
+        System.out.println("10-20 weight--> expected: 2, actual: " + stories.getWeight(s1, 0));
+        CsrGraph<String> nearest = projectStories(bipartite, 1, 2);
+        // 10 and 20 keep each other; 30 keeps 10, the smaller id of its tie
+        System.out.println("top 1, 10--> expected: [20, 30], actual: " + nearest.getSuccessors("10"));
+        System.out.println("top 1, 20--> expected: [10], actual: " + nearest.getSuccessors("20"));
+        System.out.println("top 1, arcs--> expected: 4, actual: " + nearest.getNumArcs());
+        System.out.println("components--> expected: 1, actual: " + 
+                           nearest.getComponents().getNumComponents());
+    }
+}
@@ -0,0 +1,247 @@
+package javafoundations;
+
+/**
+ * Keeps the k highest scores out of a stream of (id, score) pairs. The
+ * pairs are kept in a min-heap of at most k entries stored in two
+ * parallel primitive arrays, so offering n pairs takes O(n log k) time,
+ * O(k) space and allocates nothing. The weakest kept pair sits at the
+ * root, and a new pair only goes in if it beats it.
+ *
+ * Equal scores are ordered by id, smallest id first, so the result does
+ * not depend on the order the pairs were offered in. Ranks are
+ * competition ranks: tied scores share a rank and the next score skips
+ * ahead, as in 1, 2, 2, 4.
+ *
+ * @author Anushe Sheikh & Olivia Reblando
+ * @version 10/17/26
+ */
+public class TopK
+{
+    private int k;
+    private int[] ids; // ids[i] and scores[i] form one heap entry
+    private long[] scores;
+    private int count;
+
+    /**
+     * Constructor
+     *
+     * @param k - the number of highest scores to keep, at least 0
+     */
+    public TopK(int k){
+        if(k < 0){
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        ids = new int[k];
+        scores = new long[k];
+        count = 0;
+    }
+
+    /**
+     * Returns true if the pair (idA, scoreA) ranks below (idB, scoreB):
+     * a lower score, or the same score and a larger id
+     */
+    private static boolean below(int idA, long scoreA, int idB, long scoreB){
+        return scoreA < scoreB || (scoreA == scoreB && idA > idB);
+    }
+
+    /**
+     * Offers a pair, keeping it if it is among the k best seen so far
+     *
+     * @param id - what is being scored, such as a vertex index
+     * @param score - its score
+     * @return true if the pair was kept
+     */
+    public boolean offer(int id, long score){
+        if(count < k){
+            ids[count] = id;
+            scores[count] = score;
+            siftUp(count++);
+            return true;
+        }
+        if(k == 0 || !below(ids[0], scores[0], id, score)){
+            return false;
+        }
+        // replace the weakest kept pair
+        ids[0] = id;
+        scores[0] = score;
+        siftDown(ids, scores, 0, count);
+        return true;
+    }
+
+    /**
+     * Moves the entry at i up until its parent ranks below it
+     */
+    private void siftUp(int i){
+        while(i > 0){
+            int parent = (i - 1) / 2;
+            if(!below(ids[i], scores[i], ids[parent], scores[parent])){
+                return;
+            }
+            swap(ids, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    /**
+     * Moves the entry at i of a heap down until both children rank above
+     * it, looking only at the first size entries
+     */
+    private static void siftDown(int[] ids, long[] scores, int i, int size){
+        while(true){
+            int child = 2 * i + 1;
+            if(child >= size){
+                return;
+            }
+            if(child + 1 < size && below(ids[child + 1], scores[child + 1], 
+                                         ids[child], scores[child])){
+                child++;
+            }
+            if(!below(ids[child], scores[child], ids[i], scores[i])){
+                return;
+            }
+            swap(ids, scores, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] ids, long[] scores, int a, int b){
+        int id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        long score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+
+    /**
+     * Returns the number of pairs kept, at most k
+     *
+     * @return the number of pairs kept
+     */
+    public int size(){
+        return count;
+    }
+
+    /**
+     * Returns the number of pairs this keeps when full
+     *
+     * @return k
+     */
+    public int capacity(){
+        return k;
+    }
+
+    /**
+     * Returns the kept pairs from best to worst. The heap is left
+     * unchanged, so more pairs can still be offered afterwards.
+     *
+     * @return the ranked entries, highest score first
+     */
+    public Entry[] result(){
+        int[] sortedIds = ids.clone();
+        long[] sortedScores = scores.clone();
+        // heap sort the copy: repeatedly move the weakest entry to the end
+        for(int last = count - 1; last > 0; last--){
+            swap(sortedIds, sortedScores, 0, last);
+            siftDown(sortedIds, sortedScores, 0, last);
+        }
+
+        Entry[] entries = new Entry[count];
+        int rank = 1;
+        for(int i = 0; i < count; i++){
+            if(i > 0 && sortedScores[i] != sortedScores[i - 1]){
+                rank = i + 1;
+            }
+            entries[i] = new Entry(rank, sortedIds[i], sortedScores[i]);
+        }
+        return entries;
+    }
+
+    /**
+     * Removes every kept pair
+     */
+    public void clear(){
+        count = 0;
+    }
+
+    /**
+     * One ranked row of a TopK result
+     */
+    public static class Entry
+    {
+        private final int rank;
+        private final int id;
+        private final long score;
+
+        /**
+         * Constructor
+         *
+         * @param rank - competition rank, starting at 1
+         * @param id - what was scored
+         * @param score - its score
+         */
+        public Entry(int rank, int id, long score){
+            this.rank = rank;
+            this.id = id;
+            this.score = score;
+        }
+
+        /**
+         * Getter for the rank, 1 for the highest score
+         */
+        public int getRank(){
+            return rank;
+        }
+
+        /**
+         * Getter for the id that was scored
+         */
+        public int getId(){
+            return id;
+        }
+
+        /**
+         * Getter for the score
+         */
+        public long getScore(){
+            return score;
+        }
+
+        /**
+         * Returns the entry as "rank,id,score"
+         *
+         * @return String
+         */
+        public String toString(){
+            return rank + "," + id + "," + score;
+        }
+    }
+
+    /**
+     * Main method for testing
+     */
+    public static void main(String[] args){
+        System.out.println("***TESTING TopK***");
+        TopK top = new TopK(4);
+        long[] scores = {5, 9, 1, 9, 7, 5, 3, 7};
+        for(int i = 0; i < scores.length; i++){
+            top.offer(i, scores[i]);
+        }
+        System.out.println("Expected: 1,1,9 1,3,9 3,4,7 3,7,7");
+        System.out.print("Actual:   ");
+        Entry[] entries = top.result();
+        for(int i = 0; i < entries.length; i++){
+            System.out.print(entries[i] + " ");
+        }
+        System.out.println();
+
+        top.offer(8, 10);
+        System.out.println("Expected first after offering (8, 10): 1,8,10");
+        System.out.println("Actual:                                " + top.result()[0]);
+
+        TopK none = new TopK(0);
+        System.out.println("Expected kept with k = 0: false");
+        System.out.println("Actual:                   " + none.offer(1, 100));
+    }
+}